@@ -0,0 +1,208 @@
+import java.util.function.Function;
+import javasudoku.benchmarks.Workload;
+
+/* the operations the benchmarks in javasudoku.benchmarks time, by name, on a fixed corpus of puzzles
+*  it is in the default package like the code it runs, everything needed is set up here, so an operation does only
+*  the work it measures */
+public class BenchmarkWorkloads implements Function<String, Workload>
+{
+    // the corpus, 81 characters each with '.' for empty fields
+    static final String EASY = "94.1.2.586...5...4..24.31...2.....6.5.8.2.4.1.6.....8...16.87..7...4...343.5.9.12";
+    static final String HARD = "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+    static final String SEVENTEEN_CLUES = ".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6...";
+    static final String MULTIPLE_SOLUTIONS = "...2.65.......8..7......143.86..4...35....2.....7.......7...4.........912.1.49...";  // check.txt, 9 solutions
+    static final String NEAR_EMPTY = "..................2.3.........5....7......53.......94.....6..2..........97.2..6..";  // the SudokuGrid() grid
+
+    private static final int VALIDATED_GRIDS = 4096;
+
+    @Override
+    public Workload apply(String name)
+    {
+        switch (name)
+        {
+            case "solve-easy":
+                return Solve(EASY);
+            case "solve-hard":
+                return Solve(HARD);
+            case "solve-17-clue":
+                return Solve(SEVENTEEN_CLUES);
+            case "solve-multi-solution":
+                return Solve(MULTIPLE_SOLUTIONS);
+            case "solve-near-empty":
+                return Solve(NEAR_EMPTY);
+            case "solve-16x16-dug":
+                return Solve(new SudokuGenerator(GridGeometry.Of(4), 0).DigHoles(false, 0));
+            case "count-easy":
+                return new SudokuGrid(Parse(EASY))::NumberOfSolutions;
+            case "count-hard":
+                return new SudokuGrid(Parse(HARD))::NumberOfSolutions;
+            case "count-17-clue":
+                return new SudokuGrid(Parse(SEVENTEEN_CLUES))::NumberOfSolutions;
+            case "count-multi-solution":
+                return new SudokuGrid(Parse(MULTIPLE_SOLUTIONS))::NumberOfSolutions;
+            case "count-threaded-easy":
+                return new SudokuGrid(Parse(EASY))::NumberOfSolutionsThreaded;
+            case "count-threaded-hard":
+                return new SudokuGrid(Parse(HARD))::NumberOfSolutionsThreaded;
+            case "count-threaded-17-clue":
+                return new SudokuGrid(Parse(SEVENTEEN_CLUES))::NumberOfSolutionsThreaded;
+            case "count-threaded-multi-solution":
+                return new SudokuGrid(Parse(MULTIPLE_SOLUTIONS))::NumberOfSolutionsThreaded;
+            case "rank-easy":
+                return Rank(EASY, 0);
+            case "rank-hard":
+                return Rank(HARD, 0);
+            case "rank-17-clue":
+                return Rank(SEVENTEEN_CLUES, 0);
+            case "rank-multi-solution":
+                return Rank(MULTIPLE_SOLUTIONS, 0);
+            case "rank-77-near-empty":
+                return Rank(NEAR_EMPTY, 77);
+            case "validate-field-x729-easy":
+                return ValidateFields(new SudokuGrid(Parse(EASY)));
+            case "grade-easy":
+                return Grade(EASY);
+            case "grade-near-empty":
+                return Grade(NEAR_EMPTY);
+            case "validate-x4096-batch-vector":
+                return ValidateBatch(true);
+            case "validate-x4096-batch-scalar":
+                return ValidateBatch(false);
+            case "validate-x4096-one-by-one":
+                return ValidateOneByOne();
+            case "random-full-grid":
+                return RandomFullGrid(GridGeometry.STANDARD);
+            case "random-full-grid-16x16":
+                return RandomFullGrid(GridGeometry.Of(4));
+            case "dig-holes":
+                return DigHoles(false);
+            case "dig-holes-symmetric":
+                return DigHoles(true);
+            case "anneal-seeded":
+                return AnnealSeeded();
+            default:
+                throw new IllegalArgumentException("no benchmark workload " + name);
+        }
+    }
+
+    static int[][] Parse(String puzzle)
+    {
+        int[][] grid = new int[9][9];
+        for (int cell = 0; cell < 81; cell++)
+        {
+            char c = puzzle.charAt(cell);
+            grid[cell / 9][cell % 9] = c == '.' ? 0 : c - '0';
+        }
+        return grid;
+    }
+
+    private static Workload Solve(String puzzle)
+    {
+        return Solve(new SudokuGrid(Parse(puzzle)));
+    }
+
+    private static Workload Solve(SudokuGrid sudokuGrid)
+    {
+        return () -> {
+            Reset(sudokuGrid);
+            return sudokuGrid.Solve() ? 1 : 0;
+        };
+    }
+
+    /* limit 0 ranks without a limit */
+    private static Workload Rank(String puzzle, int limit)
+    {
+        SudokuGrid sudokuGrid = new SudokuGrid(Parse(puzzle));
+        if (limit == 0)
+            return () -> (long) sudokuGrid.GetRank();
+        return () -> (long) sudokuGrid.GetRank(limit);
+    }
+
+    private static Workload ValidateFields(SudokuGrid sudokuGrid)
+    {
+        GridPosition[] positions = new GridPosition[81];
+        for (int cell = 0; cell < 81; cell++)
+            positions[cell] = new GridPosition(cell / 9 + 1, cell % 9 + 1);
+        return () -> {
+            long valid = 0;
+            for (GridPosition position : positions)
+            {
+                for (int value = 1; value <= 9; value++)
+                    valid += sudokuGrid.ValidateField(position, value) ? 1 : 0;
+            }
+            return valid;
+        };
+    }
+
+    private static Workload Grade(String puzzle)
+    {
+        TechniqueGrader grader = new TechniqueGrader();
+        SudokuGrid sudokuGrid = new SudokuGrid(Parse(puzzle));
+        return () -> (long) grader.Rank(sudokuGrid);
+    }
+
+    /* VALIDATED_GRIDS random full grids of a seeded generator, 81 bytes each */
+    private static byte[] SolvedCells()
+    {
+        byte[] cells = new byte[VALIDATED_GRIDS * 81];
+        SudokuGenerator generator = new SudokuGenerator(0);
+        for (int i = 0; i < VALIDATED_GRIDS; i++)
+        {
+            int[][] full = generator.RandomFullGrid();
+            for (int cell = 0; cell < 81; cell++)
+                cells[i * 81 + cell] = (byte) full[cell / 9][cell % 9];
+        }
+        return cells;
+    }
+
+    /* vector needs the JVM to run with --add-modules jdk.incubator.vector */
+    private static Workload ValidateBatch(boolean vector)
+    {
+        byte[] cells = SolvedCells();
+        GridValidator validator = new GridValidator(GridGeometry.STANDARD, vector);
+        boolean[] valid = new boolean[VALIDATED_GRIDS];
+        return () -> {
+            validator.Validate(cells, 0, VALIDATED_GRIDS, true, valid);
+            return valid[VALIDATED_GRIDS - 1] ? 1 : 0;
+        };
+    }
+
+    private static Workload ValidateOneByOne()
+    {
+        byte[] cells = SolvedCells();
+        return () -> {
+            long n = 0;
+            for (int i = 0; i < VALIDATED_GRIDS; i++)
+                n += GridValidator.IsValid(GridGeometry.STANDARD, cells, i * 81, true) ? 1 : 0;
+            return n;
+        };
+    }
+
+    private static Workload RandomFullGrid(GridGeometry geometry)
+    {
+        SudokuGenerator generator = new SudokuGenerator(geometry, 0);
+        return () -> generator.RandomFullGrid()[0][0];
+    }
+
+    private static Workload DigHoles(boolean symmetric)
+    {
+        SudokuGenerator generator = new SudokuGenerator(0);
+        return () -> generator.DigHoles(symmetric, 0).initialCanFillFields.Size();
+    }
+
+    /* a new generator with the next seed every time, so every fork anneals the same sequence of runs */
+    private static Workload AnnealSeeded()
+    {
+        long[] seed = {0};
+        return () -> new SudokuGenerator(seed[0]++).Anneal(40 + 20 / 82d, 76 + 40 / 82d).canFillFields.Size();
+    }
+
+    /* puts the original grid back without allocating */
+    private static void Reset(SudokuGrid sudokuGrid)
+    {
+        int size = sudokuGrid.geometry.size;
+        for (int i = 0; i < size; i++)
+            System.arraycopy(sudokuGrid.originalGrid[i], 0, sudokuGrid.grid[i], 0, size);
+        sudokuGrid.SetGrid(sudokuGrid.grid);
+    }
+}
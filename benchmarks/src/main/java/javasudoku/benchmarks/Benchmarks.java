@@ -0,0 +1,23 @@
+package javasudoku.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/* runs the benchmarks like JMH's own Main with the same options, always with the GC profiler (-prof gc), so every
+*  result comes with the bytes allocated per operation by all threads, the ForkJoin pool of the threaded count included
+*  usage: java -jar target/benchmarks.jar [JMH options, e.g. a regex of the benchmarks to run] */
+public final class Benchmarks
+{
+    private Benchmarks()
+    {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException
+    {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,41 @@
+package javasudoku.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* making full grids, digging holes and annealing, every operation seeded so that each fork does the same work */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GeneratorBenchmark
+{
+    @Param({"random-full-grid", "random-full-grid-16x16", "dig-holes", "dig-holes-symmetric", "anneal-seeded"})
+    public String workload;
+
+    private Workload operation;
+
+    @Setup
+    public void Setup()
+    {
+        this.operation = Workload.Of(this.workload);
+    }
+
+    @Benchmark
+    public long Run()
+    {
+        return this.operation.Run();
+    }
+}
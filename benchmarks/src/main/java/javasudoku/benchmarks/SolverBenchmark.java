@@ -0,0 +1,46 @@
+package javasudoku.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* solving, counting and ranking the puzzles of the corpus (see BenchmarkWorkloads), exhaustive counting is hopeless
+*  on the near-empty grid, it is only counted with a limit like Anneal does */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolverBenchmark
+{
+    @Param({"solve-easy", "solve-hard", "solve-17-clue", "solve-multi-solution", "solve-near-empty", "solve-16x16-dug",
+            "count-easy", "count-hard", "count-17-clue", "count-multi-solution",
+            "count-threaded-easy", "count-threaded-hard", "count-threaded-17-clue", "count-threaded-multi-solution",
+            "rank-easy", "rank-hard", "rank-17-clue", "rank-multi-solution", "rank-77-near-empty",
+            "validate-field-x729-easy", "grade-easy", "grade-near-empty"})
+    public String workload;
+
+    private Workload operation;
+
+    @Setup
+    public void Setup()
+    {
+        this.operation = Workload.Of(this.workload);
+    }
+
+    @Benchmark
+    public long Run()
+    {
+        return this.operation.Run();
+    }
+}
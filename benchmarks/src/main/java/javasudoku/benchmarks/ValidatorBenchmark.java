@@ -0,0 +1,42 @@
+package javasudoku.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* checking 4096 full grids of the corpus for conflicts, all at once with the Vector API and with the plain loops, and
+*  one by one (see GridValidator), the forks run with the incubating Vector API so that both batch paths can be taken */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ValidatorBenchmark
+{
+    @Param({"validate-x4096-batch-vector", "validate-x4096-batch-scalar", "validate-x4096-one-by-one"})
+    public String workload;
+
+    private Workload operation;
+
+    @Setup
+    public void Setup()
+    {
+        this.operation = Workload.Of(this.workload);
+    }
+
+    @Benchmark
+    public long Run()
+    {
+        return this.operation.Run();
+    }
+}
@@ -0,0 +1,25 @@
+package javasudoku.benchmarks;
+
+import java.util.function.Function;
+
+/* one operation a benchmark times, the classes of the sudoku code are package-private in the default package, which
+*  nothing in a named package can refer to, so the operations are made by BenchmarkWorkloads there and looked up by name */
+public interface Workload
+{
+    /* runs the operation once, the result goes to the blackhole so the JIT cannot drop the work */
+    long Run();
+
+    @SuppressWarnings("unchecked")
+    static Workload Of(String name)
+    {
+        try
+        {
+            Function<String, Workload> workloads = (Function<String, Workload>) Class.forName("BenchmarkWorkloads").getConstructor().newInstance();
+            return workloads.apply(name);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
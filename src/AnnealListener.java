@@ -0,0 +1,16 @@
+/* what SudokuGenerator's annealing runs report while they go, in place of printing to System.out
+*  the arguments are plain values, so that reporting a step allocates nothing, NONE (the default) drops everything,
+*  AnnealTraceWriter writes the steps to a CSV file on a thread of its own
+*  AnnealTempering calls one listener from all its chains at once, so a shared one has to allow that */
+interface AnnealListener
+{
+    AnnealListener NONE = (step, temperature, cell, value, added, rank, cost, accepted) -> {};
+
+    /* a proposed move of a run: value was added to (or removed from, if not added) the cell (a flat index, row * size
+    *  + column, -1 if no field could take a value), the new grid had rank and cost, and accepted tells whether it
+    *  became the current one, step counts the steps of the run from 0 */
+    void Step(long step, double temperature, int cell, int value, boolean added, double rank, double cost, boolean accepted);
+
+    /* the end of a sweep at one temperature, rank is that of the current grid */
+    default void Sweep(double temperature, double rank) {}
+}
@@ -0,0 +1,125 @@
+/* how SudokuGenerator's annealing cools down: the temperature it starts at, the one it stops at, how the temperature
+*  goes from one sweep to the next, and how long a sweep at one temperature is
+*  a sweep ends after sweepLength steps or once acceptedPerSweep of them were accepted, whichever comes first, with
+*  acceptedPerSweep below sweepLength a hot run, which accepts nearly everything, moves on quickly and a cold one gets
+*  the full sweep (Kirkpatrick's rule), both are 100 unless WithSweep says otherwise, so every sweep has 100 steps
+*      GEOMETRIC multiplies the temperature by rate after every sweep
+*      LINEAR takes rate off the temperature after every sweep
+*      ADAPTIVE multiplies by rate, cools twice as fast while more than targetAcceptance of the steps are accepted and
+*      half as fast while fewer are, and every reheatAfter sweeps without a better cost it heats up half way back (on
+*      a log scale) to the start temperature, at most maxReheats times a run, so that a run stuck for good still
+*      cools down to minTemperature and ends
+*  a schedule holds no state of a run, so one can be shared by runs and threads, DEFAULT is what Anneal has always done */
+final class AnnealSchedule
+{
+    enum Kind
+    {
+        GEOMETRIC, LINEAR, ADAPTIVE
+    }
+
+    public static final AnnealSchedule DEFAULT = Geometric(1d, 0.00001, 0.9);
+
+    private static final int SWEEP_LENGTH = 100;
+    private static final int MAX_REHEATS = 10;
+
+    public final Kind kind;
+    public final double startTemperature;
+    public final double minTemperature;
+    public final double rate;
+    public final int sweepLength;
+    public final int acceptedPerSweep;
+    // ADAPTIVE only
+    public final double targetAcceptance;
+    public final int reheatAfter;
+    public final int maxReheats;
+
+    private AnnealSchedule(Kind kind, double startTemperature, double minTemperature, double rate, int sweepLength, int acceptedPerSweep, double targetAcceptance, int reheatAfter, int maxReheats)
+    {
+        if (!(minTemperature > 0 && minTemperature < startTemperature))
+            throw new IllegalArgumentException("the temperature has to go down from " + startTemperature + " to " + minTemperature + " above 0");
+        if (kind == Kind.LINEAR ? !(rate > 0) : !(rate > 0 && rate < 1))
+            throw new IllegalArgumentException("rate " + rate + " does not cool down a " + kind + " schedule");
+        if (sweepLength < 1 || acceptedPerSweep < 1)
+            throw new IllegalArgumentException("a sweep needs at least one step");
+        this.kind = kind;
+        this.startTemperature = startTemperature;
+        this.minTemperature = minTemperature;
+        this.rate = rate;
+        this.sweepLength = sweepLength;
+        this.acceptedPerSweep = acceptedPerSweep;
+        this.targetAcceptance = targetAcceptance;
+        this.reheatAfter = reheatAfter;
+        this.maxReheats = maxReheats;
+    }
+
+    public static AnnealSchedule Geometric(double startTemperature, double minTemperature, double alpha)
+    {
+        return new AnnealSchedule(Kind.GEOMETRIC, startTemperature, minTemperature, alpha, SWEEP_LENGTH, SWEEP_LENGTH, 0, 0, 0);
+    }
+
+    /* sweeps sweeps from startTemperature down to minTemperature */
+    public static AnnealSchedule Linear(double startTemperature, double minTemperature, int sweeps)
+    {
+        if (sweeps < 1)
+            throw new IllegalArgumentException("need at least one sweep");
+        return new AnnealSchedule(Kind.LINEAR, startTemperature, minTemperature, (startTemperature - minTemperature) / sweeps, SWEEP_LENGTH, SWEEP_LENGTH, 0, 0, 0);
+    }
+
+    /* reheatAfter 0 never reheats, a run reheats at most 10 times */
+    public static AnnealSchedule Adaptive(double startTemperature, double minTemperature, double alpha, double targetAcceptance, int reheatAfter)
+    {
+        return Adaptive(startTemperature, minTemperature, alpha, targetAcceptance, reheatAfter, MAX_REHEATS);
+    }
+
+    /* same as above, reheating at most maxReheats times a run */
+    public static AnnealSchedule Adaptive(double startTemperature, double minTemperature, double alpha, double targetAcceptance, int reheatAfter, int maxReheats)
+    {
+        if (!(targetAcceptance > 0 && targetAcceptance < 1) || reheatAfter < 0 || maxReheats < 0)
+            throw new IllegalArgumentException("target acceptance " + targetAcceptance + " not within 0 to 1 or reheatAfter " + reheatAfter + " or maxReheats " + maxReheats + " below 0");
+        return new AnnealSchedule(Kind.ADAPTIVE, startTemperature, minTemperature, alpha, SWEEP_LENGTH, SWEEP_LENGTH, targetAcceptance, reheatAfter, maxReheats);
+    }
+
+    /* the same schedule with sweeps of up to length steps, ending early after accepted accepted steps */
+    public AnnealSchedule WithSweep(int length, int accepted)
+    {
+        return new AnnealSchedule(this.kind, this.startTemperature, this.minTemperature, this.rate, length, Math.min(accepted, length), this.targetAcceptance, this.reheatAfter, this.maxReheats);
+    }
+
+    /* the temperature of the sweep after one at t, acceptance is the share of its steps that were accepted, stalled the
+    *  number of sweeps in a row that found no better cost, reheats the number of times the run has heated up so far
+    *  (a temperature above t), the run is over once it is not above minTemperature */
+    public double Next(double t, double acceptance, int stalled, int reheats)
+    {
+        switch (this.kind)
+        {
+            case LINEAR:
+                return t - this.rate;
+            case ADAPTIVE:
+                if (this.reheatAfter > 0 && stalled > 0 && stalled % this.reheatAfter == 0 && reheats < this.maxReheats)
+                    return Math.sqrt(t * this.startTemperature);
+                if (acceptance > this.targetAcceptance)
+                    return t * this.rate * this.rate;
+                if (acceptance < this.targetAcceptance)
+                    return t * Math.sqrt(this.rate);
+                return t * this.rate;
+            default:
+                return t * this.rate;
+        }
+    }
+
+    /* the number of sweeps without adapting or reheating, that of DEFAULT is 110 */
+    public int Sweeps()
+    {
+        int sweeps = 0;
+        for (double t = this.startTemperature; t > this.minTemperature; t = this.kind == Kind.LINEAR ? t - this.rate : t * this.rate)
+            sweeps++;
+        return sweeps;
+    }
+
+    @Override
+    public String toString()
+    {
+        String adaptive = this.kind == Kind.ADAPTIVE ? String.format(", target acceptance=%.2f, reheat after %d up to %d times", this.targetAcceptance, this.reheatAfter, this.maxReheats) : "";
+        return String.format("AnnealSchedule[%s, t=%g to %g, rate=%g, sweep=%d steps or %d accepted%s]", this.kind, this.startTemperature, this.minTemperature, this.rate, this.sweepLength, this.acceptedPerSweep, adaptive);
+    }
+}
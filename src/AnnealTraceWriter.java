@@ -0,0 +1,198 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/* an AnnealListener writing every step as a CSV line, see HEADER, on a thread of its own
+*  the annealing threads only copy the step into a ring buffer of plain arrays: a step claims the next slot with a
+*  compare-and-set of the head, fills it in and publishes it with its sequence number, the writer thread takes the
+*  slots in order as they are published, so nothing on the annealing side waits on a lock or on the file
+*  a step finding the ring full is dropped and counted (Dropped), a trace is for tuning, not worth slowing down for
+*  close writes what is left in the ring and closes the file, a step that claimed its slot after close is dropped too,
+*  so every step ends up either written or dropped */
+class AnnealTraceWriter implements AnnealListener, Closeable
+{
+    public static final String HEADER = "step,temperature,cell,value,added,rank,cost,accepted";
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    // how long the writer thread sleeps when the ring is empty
+    private static final long IDLE_NANOS = 200_000;
+
+    private final int mask;
+    private final long[] steps;
+    private final double[] temperatures;
+    private final int[] cells;
+    private final int[] values;
+    private final boolean[] added;
+    private final double[] ranks;
+    private final double[] costs;
+    private final boolean[] accepted;
+    // per slot the sequence number + 1 of the step in it once it is filled in, 0 before the first, negated for a
+    // slot claimed after close, which the writer thread skips
+    private final AtomicLongArray published;
+    // the next sequence number to claim, and the next one the writer thread takes
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private volatile long written;  // only changed by the writer thread
+    private final LongAdder dropped = new LongAdder();
+
+    private final BufferedWriter out;
+    private final Thread thread;
+    private volatile boolean closed;
+    private IOException failure;
+
+    public AnnealTraceWriter(Path path) throws IOException
+    {
+        this(Files.newBufferedWriter(path), DEFAULT_CAPACITY);
+    }
+
+    /* capacity is the number of steps the ring holds, a power of 2 */
+    public AnnealTraceWriter(Writer out, int capacity)
+    {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity " + capacity + " is not a power of 2");
+        this.mask = capacity - 1;
+        this.steps = new long[capacity];
+        this.temperatures = new double[capacity];
+        this.cells = new int[capacity];
+        this.values = new int[capacity];
+        this.added = new boolean[capacity];
+        this.ranks = new double[capacity];
+        this.costs = new double[capacity];
+        this.accepted = new boolean[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.out = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out, 1 << 16);
+        this.thread = new Thread(this::Drain, "anneal-trace");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void Step(long step, double temperature, int cell, int value, boolean added, double rank, double cost, boolean accepted)
+    {
+        long sequence;
+        do
+        {
+            sequence = this.head.get();
+            if (this.closed || sequence - this.tail > this.mask)
+            {
+                this.dropped.increment();
+                return;
+            }
+        }
+        while (!this.head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & this.mask;
+        if (this.closed)
+        {
+            // closed between the check above and the claim, the writer thread may have stopped already, so the step
+            // is dropped, and the slot marked so that a writer thread still running does not wait for it
+            this.dropped.increment();
+            this.published.lazySet(slot, -(sequence + 1));
+            return;
+        }
+        this.steps[slot] = step;
+        this.temperatures[slot] = temperature;
+        this.cells[slot] = cell;
+        this.values[slot] = value;
+        this.added[slot] = added;
+        this.ranks[slot] = rank;
+        this.costs[slot] = cost;
+        this.accepted[slot] = accepted;
+        this.published.lazySet(slot, sequence + 1);  // the writes above are seen before this
+    }
+
+    /* steps lost because the ring was full or the writer closed */
+    public long Dropped()
+    {
+        return this.dropped.sum();
+    }
+
+    /* steps written to the file so far */
+    public long Written()
+    {
+        return this.written;
+    }
+
+    /* waits for the ring to be written out, then closes the file, a write that failed on the way is thrown here */
+    @Override
+    public void close() throws IOException
+    {
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+        try
+        {
+            this.thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        try
+        {
+            if (this.failure != null)
+                throw this.failure;
+        }
+        finally
+        {
+            this.out.close();
+        }
+    }
+
+    /* the writer thread, runs until closed and the ring is empty, the file is flushed whenever the ring runs empty */
+    private void Drain()
+    {
+        StringBuilder line = new StringBuilder(128);
+        try
+        {
+            this.out.write(HEADER);
+            this.out.newLine();
+            boolean flushed = false;
+            while (true)
+            {
+                long sequence = this.tail;
+                int slot = (int) sequence & this.mask;
+                long published = this.published.get(slot);
+                if (published == -(sequence + 1))  // dropped, claimed after close
+                {
+                    this.tail = sequence + 1;
+                    continue;
+                }
+                if (published != sequence + 1)
+                {
+                    // a claimed slot is always filled in soon, so closing only stops once nothing is claimed either
+                    if (this.closed && this.head.get() == sequence)
+                        break;
+                    if (!flushed)
+                    {
+                        this.out.flush();
+                        flushed = true;
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                line.setLength(0);
+                line.append(this.steps[slot]).append(',').append(this.temperatures[slot]).append(',')
+                        .append(this.cells[slot]).append(',').append(this.values[slot]).append(',')
+                        .append(this.added[slot] ? 1 : 0).append(',').append(this.ranks[slot]).append(',')
+                        .append(this.costs[slot]).append(',').append(this.accepted[slot] ? 1 : 0);
+                this.tail = sequence + 1;  // frees the slot, everything of it has been read
+                this.out.append(line);
+                this.out.newLine();
+                this.written++;
+                flushed = false;
+            }
+            this.out.flush();
+        }
+        catch (IOException e)
+        {
+            this.failure = e;
+            this.closed = true;  // nothing more is taken in
+        }
+    }
+}
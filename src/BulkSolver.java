@@ -0,0 +1,187 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/* solves puzzle files in the common one-puzzle-per-line format: 81 characters, '1' to '9' for given fields and
+*  '.' or '0' for empty ones, anything after the 81st character of a line is ignored
+*  the input is read in chunks of puzzles, each chunk is solved in parallel and written out in input order,
+*  so only one chunk is ever held in memory, and every solution is checked once more before it is written out */
+class BulkSolver
+{
+    private static final int CHUNK_SIZE = 8192;  // puzzles per chunk
+
+    // the solver holds the search state, so there is one per thread
+    private static final ThreadLocal<SudokuSolver> SOLVERS = ThreadLocal.withInitial(SudokuSolver::new);
+
+    private final byte[] cells = new byte[CHUNK_SIZE * 81];
+    private final boolean[] solved = new boolean[CHUNK_SIZE];
+    private final boolean[] valid = new boolean[CHUNK_SIZE];
+    private final GridValidator validator = new GridValidator();
+    private final byte[] line = new byte[82];  // output line, 81 characters and '\n'
+    // the input is read in blocks into buffer and parsed from there, not a synchronized read() per byte
+    private final byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+
+    private long lineNumber;
+    private long puzzleCount;
+    private long solvedCount;
+    private long invalidCount;
+
+    /* usage: BulkSolver <input file> <output file> */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.out.println("usage: BulkSolver <input file> <output file>");
+            return;
+        }
+        SolverMetrics.Register();  // a long run can be watched with jconsole
+        long start = System.currentTimeMillis();
+        BulkSolver bulkSolver = new BulkSolver();
+        try (InputStream in = Files.newInputStream(Path.of(args[0])); OutputStream out = Files.newOutputStream(Path.of(args[1])))
+        {
+            bulkSolver.Solve(in, out);
+        }
+        System.out.println(String.format("solved %d of %d puzzles in %d ms", bulkSolver.solvedCount, bulkSolver.puzzleCount, System.currentTimeMillis() - start));
+    }
+
+    /* solves every puzzle from in and writes one line per puzzle to out, the solution or, if there is none,
+    *  the puzzle itself with '.' for empty fields */
+    public void Solve(InputStream in, OutputStream out) throws IOException
+    {
+        this.position = 0;  this.limit = 0;
+        BufferedOutputStream output = new BufferedOutputStream(out, 1 << 16);
+        int n;
+        while ((n = ReadChunk(in)) > 0)
+        {
+            IntStream.range(0, n).parallel().forEach(this::SolveOne);
+            Verify(n);
+            WriteChunk(output, n);
+        }
+        output.flush();
+    }
+
+    public long PuzzleCount()
+    {
+        return this.puzzleCount;
+    }
+
+    public long SolvedCount()
+    {
+        return this.solvedCount;
+    }
+
+    /* solutions that failed the check, never expected to be anything but 0, these count as not solved */
+    public long InvalidCount()
+    {
+        return this.invalidCount;
+    }
+
+    private void SolveOne(int index)
+    {
+        SudokuSolver solver = SOLVERS.get();
+        int offset = index * 81;
+        this.solved[index] = solver.Load(this.cells, offset) && solver.Solve();
+        if (this.solved[index])
+            solver.CopyTo(this.cells, offset);
+    }
+
+    /* checks the whole chunk at once, an unsolved puzzle is left as it is */
+    private void Verify(int n)
+    {
+        this.validator.Validate(this.cells, 0, n, true, this.valid);
+        for (int index = 0; index < n; index++)
+        {
+            if (this.solved[index] && !this.valid[index])
+            {
+                this.solved[index] = false;
+                this.invalidCount++;
+            }
+        }
+    }
+
+    /* parses up to CHUNK_SIZE puzzles into cells, returns how many were read */
+    private int ReadChunk(InputStream input) throws IOException
+    {
+        int n = 0;
+        while (n < CHUNK_SIZE)
+        {
+            int c = Read(input);
+            if (c == -1)
+                break;
+            if (c == '\n')  // empty line
+            {
+                this.lineNumber++;
+                continue;
+            }
+            if (c == '\r')
+                continue;
+            this.lineNumber++;
+
+            int offset = n * 81;
+            ParseCell(offset, c);
+            if (this.limit - this.position >= 80)  // the rest of the cells are in the buffer, scanned right there
+            {
+                for (int i = 1; i < 81; i++)
+                    ParseCell(offset + i, this.buffer[this.position++] & 0xFF);
+            }
+            else
+            {
+                for (int i = 1; i < 81; i++)
+                    ParseCell(offset + i, Read(input));
+            }
+            // skip whatever follows the 81 cells on this line
+            do
+                c = Read(input);
+            while (c != '\n' && c != -1);
+            n++;
+        }
+        return n;
+    }
+
+    private void ParseCell(int index, int c) throws IOException
+    {
+        if (c >= '1' && c <= '9')
+            this.cells[index] = (byte) (c - '0');
+        else if (c == '.' || c == '0')
+            this.cells[index] = 0;
+        else
+            throw new IOException(String.format("line %d: expected 81 cells of 1 to 9, '.' or '0'", this.lineNumber));
+    }
+
+    /* the next byte of the input, -1 at its end, refills buffer once it is used up */
+    private int Read(InputStream input) throws IOException
+    {
+        if (this.position == this.limit)
+        {
+            int read = input.read(this.buffer);
+            if (read <= 0)
+                return -1;
+            this.position = 0;  this.limit = read;
+        }
+        return this.buffer[this.position++] & 0xFF;
+    }
+
+    private void WriteChunk(BufferedOutputStream output, int n) throws IOException
+    {
+        this.line[81] = '\n';
+        for (int index = 0; index < n; index++)
+        {
+            int offset = index * 81;
+            for (int i = 0; i < 81; i++)
+            {
+                byte value = this.cells[offset + i];
+                this.line[i] = value == 0 ? (byte) '.' : (byte) ('0' + value);
+            }
+            output.write(this.line);
+            if (this.solved[index])
+                this.solvedCount++;
+        }
+        this.puzzleCount += n;
+    }
+}
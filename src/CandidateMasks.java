@@ -0,0 +1,68 @@
+/* per-row, per-column and per-box occupancy masks, bit (value-1) is set when value is already used in that unit
+*  the indices here are 0 based, unlike GridPosition, the grid has the size of the GridGeometry given */
+class CandidateMasks
+{
+    private final GridGeometry geometry;
+    private final int[] rowMasks;
+    private final int[] columnMasks;
+    private final int[] boxMasks;
+
+    public CandidateMasks(GridGeometry geometry)
+    {
+        this.geometry = geometry;
+        this.rowMasks = new int[geometry.size];
+        this.columnMasks = new int[geometry.size];
+        this.boxMasks = new int[geometry.size];
+    }
+
+    /* rebuild all masks from a grid, the grid is expected to be legal */
+    public void Load(int[][] grid)
+    {
+        int size = this.geometry.size;
+        for (int i = 0; i < size; i++)
+        {
+            this.rowMasks[i] = 0;  this.columnMasks[i] = 0;  this.boxMasks[i] = 0;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            for (int j = 0; j < size; j++)
+            {
+                if (grid[i][j] != 0)
+                    Place(i, j, grid[i][j]);
+            }
+        }
+    }
+
+    public void Place(int row, int column, int value)
+    {
+        int bit = 1 << (value - 1);
+        this.rowMasks[row] |= bit;
+        this.columnMasks[column] |= bit;
+        this.boxMasks[this.geometry.boxOf[row * this.geometry.size + column]] |= bit;
+    }
+
+    public void Remove(int row, int column, int value)
+    {
+        int bit = ~(1 << (value - 1));
+        this.rowMasks[row] &= bit;
+        this.columnMasks[column] &= bit;
+        this.boxMasks[this.geometry.boxOf[row * this.geometry.size + column]] &= bit;
+    }
+
+    /* values already used by the row, column and box of the field */
+    public int Used(int row, int column)
+    {
+        return this.rowMasks[row] | this.columnMasks[column] | this.boxMasks[this.geometry.boxOf[row * this.geometry.size + column]];
+    }
+
+    /* bit (value-1) is set for every value that can legally go into the field */
+    public int Candidates(int row, int column)
+    {
+        return ~Used(row, column) & this.geometry.all;
+    }
+
+    public boolean IsCandidate(int row, int column, int value)
+    {
+        return (Used(row, column) & (1 << (value - 1))) == 0;
+    }
+}
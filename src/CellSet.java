@@ -0,0 +1,81 @@
+/* a set of fields as cell indices, 0 to cells-1 (row-major, 0 based unlike GridPosition), a sparse set:
+*  dense holds every cell once, the members first, index is where each cell is in dense, so membership, adding,
+*  removing and picking a random member or a random non-member are all O(1) and nothing is allocated */
+class CellSet
+{
+    private final int[] dense;
+    private final int[] index;
+    private int size;
+
+    /* an empty set of cells 0 to cells-1 */
+    public CellSet(int cells)
+    {
+        this.dense = new int[cells];
+        this.index = new int[cells];
+        for (int cell = 0; cell < cells; cell++)
+        {
+            this.dense[cell] = cell;  this.index[cell] = cell;
+        }
+    }
+
+    public CellSet(CellSet other)
+    {
+        this.dense = other.dense.clone();
+        this.index = other.index.clone();
+        this.size = other.size;
+    }
+
+    public boolean Contains(int cell)
+    {
+        return this.index[cell] < this.size;
+    }
+
+    public void Add(int cell)
+    {
+        if (!Contains(cell))
+            MoveTo(cell, this.size++);
+    }
+
+    public void Remove(int cell)
+    {
+        if (Contains(cell))
+            MoveTo(cell, --this.size);
+    }
+
+    public void Clear()
+    {
+        this.size = 0;
+    }
+
+    public int Size()
+    {
+        return this.size;
+    }
+
+    /* the number of cells there are, members or not */
+    public int Capacity()
+    {
+        return this.dense.length;
+    }
+
+    /* the i-th member, 0 <= i < Size(), in no particular order */
+    public int Get(int i)
+    {
+        return this.dense[i];
+    }
+
+    /* the i-th cell not in the set, 0 <= i < Capacity() - Size(), in no particular order */
+    public int GetOther(int i)
+    {
+        return this.dense[this.size + i];
+    }
+
+    /* swaps the cell with the one at position in dense */
+    private void MoveTo(int cell, int position)
+    {
+        int other = this.dense[position];
+        int from = this.index[cell];
+        this.dense[from] = other;  this.index[other] = from;
+        this.dense[position] = cell;  this.index[cell] = position;
+    }
+}
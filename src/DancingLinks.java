@@ -0,0 +1,283 @@
+import java.util.List;
+
+/* exact cover solver (Knuth's Algorithm X with dancing links) for the 9x9 grid
+*  the 324 constraints are the columns: every cell filled, and every value once per row, column and box
+*  the 729 rows are the (cell, value) choices, each covering exactly 4 columns
+*  all links live in pre-allocated int arrays built once, loading a grid only covers the given rows */
+class DancingLinks implements GridSolver
+{
+    private static final int COLUMNS = 324;
+    private static final int ROWS = 729;
+    private static final int ROOT = 0;
+    private static final int NODES = 1 + COLUMNS + ROWS * 4;
+
+    // node links, index 0 is the root, 1 to 324 are the column headers, then 4 nodes per row
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] columnOf = new int[NODES];
+    private final int[] rowOf = new int[NODES];
+    private final int[] size = new int[1 + COLUMNS];
+    private final boolean[] covered = new boolean[1 + COLUMNS];
+
+    // columns covered while loading the given fields, uncovered in reverse order on the next load
+    private final int[] loadedColumns = new int[COLUMNS];
+    private int loadedCount;
+
+    private final byte[] board = new byte[81];
+    private final int[] chosenRows = new int[81];
+    // whether the choice at each depth was forced, i.e. its column had a single row left
+    private final boolean[] forced = new boolean[81];
+    private int emptyCount;
+    private int solvedByLogic;
+
+    private long count;
+    private long limit;
+    private boolean fillBoard;
+    private List<int[][]> solutions;
+
+    // what the last search did, added to SolverMetrics.GLOBAL when it returns, a dead end is a column without rows
+    private long nodes;
+    private long backtracks;
+    private int maxDepth;
+    private long deadEnds;
+
+    public DancingLinks()
+    {
+        for (int c = 0; c <= COLUMNS; c++)
+        {
+            this.left[c] = c == 0 ? COLUMNS : c - 1;
+            this.right[c] = c == COLUMNS ? 0 : c + 1;
+            this.up[c] = c;  this.down[c] = c;
+            this.columnOf[c] = c;
+        }
+        int node = 1 + COLUMNS;
+        for (int row = 0; row < ROWS; row++)
+        {
+            int cell = row / 9, digit = row % 9;
+            int[] columns = {
+                    1 + cell,
+                    1 + 81 + SudokuSolver.ROW_OF[cell] * 9 + digit,
+                    1 + 162 + SudokuSolver.COLUMN_OF[cell] * 9 + digit,
+                    1 + 243 + SudokuSolver.BOX_OF[cell] * 9 + digit};
+            for (int k = 0; k < 4; k++, node++)
+            {
+                int c = columns[k];
+                this.columnOf[node] = c;
+                this.rowOf[node] = row;
+                // append at the bottom of the column
+                this.up[node] = this.up[c];  this.down[node] = c;
+                this.down[this.up[c]] = node;  this.up[c] = node;
+                this.size[c]++;
+                // circular list of the 4 nodes of this row
+                this.left[node] = k == 0 ? node + 3 : node - 1;
+                this.right[node] = k == 3 ? node - 3 : node + 1;
+            }
+        }
+    }
+
+    @Override
+    public boolean Load(int[][] grid)
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("Dancing Links only handles 9x9 grids");
+        while (this.loadedCount > 0)
+            Uncover(this.loadedColumns[--this.loadedCount]);
+
+        this.emptyCount = 0;
+        boolean legal = true;
+        for (int cell = 0; cell < 81; cell++)
+        {
+            int value = grid[SudokuSolver.ROW_OF[cell]][SudokuSolver.COLUMN_OF[cell]];
+            this.board[cell] = (byte) value;
+            if (value == 0)
+                this.emptyCount++;
+            else if (!SelectGiven(cell * 9 + value - 1))
+                legal = false;
+        }
+        return legal;
+    }
+
+    @Override
+    public int EmptyCount()
+    {
+        return this.emptyCount;
+    }
+
+    @Override
+    public boolean Solve()
+    {
+        this.fillBoard = true;
+        boolean solved = Count(1) == 1;
+        this.fillBoard = false;
+        return solved;
+    }
+
+    /* a forced choice is what a naked or hidden single is in the grid, it counts as logic */
+    @Override
+    public int SolvedByLogic()
+    {
+        return this.solvedByLogic;
+    }
+
+    @Override
+    public int SolvedBySearch()
+    {
+        return this.emptyCount - this.solvedByLogic;
+    }
+
+    @Override
+    public long CountSolutions(long limit)
+    {
+        return Count(limit);
+    }
+
+    @Override
+    public void CollectSolutions(List<int[][]> solutions)
+    {
+        this.solutions = solutions;
+        Count(Long.MAX_VALUE);
+        this.solutions = null;
+    }
+
+    @Override
+    public void CopyTo(int[][] grid)
+    {
+        for (int cell = 0; cell < 81; cell++)
+        {
+            grid[SudokuSolver.ROW_OF[cell]][SudokuSolver.COLUMN_OF[cell]] = this.board[cell];
+        }
+    }
+
+    /* covers the 4 columns of a given field's row, false if one of them is already covered (conflicting givens) */
+    private boolean SelectGiven(int row)
+    {
+        int first = 1 + COLUMNS + row * 4;
+        for (int node = first; node < first + 4; node++)
+        {
+            if (this.covered[this.columnOf[node]])
+                return false;
+        }
+        for (int node = first; node < first + 4; node++)
+        {
+            Cover(this.columnOf[node]);
+            this.loadedColumns[this.loadedCount++] = this.columnOf[node];
+        }
+        return true;
+    }
+
+    private long Count(long limit)
+    {
+        long start = System.nanoTime();
+        this.nodes = 0;  this.backtracks = 0;  this.maxDepth = 0;  this.deadEnds = 0;
+        this.count = 0;
+        this.limit = limit;
+        Search(0);
+        // every row tried is a candidate tested and is always taken back, nothing is inferred
+        SolverMetrics.GLOBAL.RecordSearch(this.fillBoard ? SolverMetrics.Phase.SOLVE : SolverMetrics.Phase.COUNT, System.nanoTime() - start,
+                this.nodes, this.backtracks, this.maxDepth, this.backtracks, 0, 0, this.deadEnds, this.count);
+        return this.count;
+    }
+
+    private void Cover(int c)
+    {
+        this.covered[c] = true;
+        this.left[this.right[c]] = this.left[c];
+        this.right[this.left[c]] = this.right[c];
+        for (int i = this.down[c]; i != c; i = this.down[i])
+        {
+            for (int j = this.right[i]; j != i; j = this.right[j])
+            {
+                this.up[this.down[j]] = this.up[j];
+                this.down[this.up[j]] = this.down[j];
+                this.size[this.columnOf[j]]--;
+            }
+        }
+    }
+
+    private void Uncover(int c)
+    {
+        for (int i = this.up[c]; i != c; i = this.up[i])
+        {
+            for (int j = this.left[i]; j != i; j = this.left[j])
+            {
+                this.size[this.columnOf[j]]++;
+                this.up[this.down[j]] = j;
+                this.down[this.up[j]] = j;
+            }
+        }
+        this.left[this.right[c]] = c;
+        this.right[this.left[c]] = c;
+        this.covered[c] = false;
+    }
+
+    /* returns true once the limit is reached, the links are always restored on the way back */
+    private boolean Search(int depth)
+    {
+        this.nodes++;
+        if (depth > this.maxDepth)
+            this.maxDepth = depth;
+        if (this.right[ROOT] == ROOT)  // every constraint satisfied
+        {
+            this.count++;
+            if (this.fillBoard || this.solutions != null)
+                RecordSolution(depth);
+            return this.count >= this.limit;
+        }
+
+        // the column with the fewest rows left keeps the branching small
+        int column = this.right[ROOT];
+        for (int c = this.right[column]; c != ROOT; c = this.right[c])
+        {
+            if (this.size[c] < this.size[column])
+                column = c;
+        }
+        if (this.size[column] == 0)
+        {
+            this.deadEnds++;
+            return false;
+        }
+
+        boolean stop = false;
+        this.forced[depth] = this.size[column] == 1;
+        Cover(column);
+        for (int r = this.down[column]; r != column && !stop; r = this.down[r])
+        {
+            this.chosenRows[depth] = this.rowOf[r];
+            for (int j = this.right[r]; j != r; j = this.right[j])
+                Cover(this.columnOf[j]);
+            stop = Search(depth + 1);
+            for (int j = this.left[r]; j != r; j = this.left[j])
+                Uncover(this.columnOf[j]);
+            this.backtracks++;
+        }
+        Uncover(column);
+        return stop;
+    }
+
+    private void RecordSolution(int depth)
+    {
+        if (this.solutions != null)
+        {
+            int[][] solution = new int[9][9];
+            CopyTo(solution);
+            for (int i = 0; i < depth; i++)
+            {
+                int row = this.chosenRows[i];
+                solution[SudokuSolver.ROW_OF[row / 9]][SudokuSolver.COLUMN_OF[row / 9]] = row % 9 + 1;
+            }
+            this.solutions.add(solution);
+        }
+        if (this.fillBoard)
+        {
+            this.solvedByLogic = 0;
+            for (int i = 0; i < depth; i++)
+            {
+                this.board[this.chosenRows[i] / 9] = (byte) (this.chosenRows[i] % 9 + 1);
+                if (this.forced[i])
+                    this.solvedByLogic++;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/* how SudokuGenerator.Generate makes a puzzle */
+enum GenerationStrategy
+{
+    ANNEAL,             // simulated annealing on the rank, any rank range
+    DIG_HOLES,          // emptying fields of a full grid while the solution stays unique, ranks below 2 only
+    DIG_HOLES_SYMMETRIC // same, fields are emptied in pairs opposite each other through the centre
+}
@@ -0,0 +1,121 @@
+import java.util.SplittableRandom;
+
+/* the shape of a grid with boxes of boxSize x boxSize fields, size = boxSize * boxSize rows, columns, boxes and values, from
+*  4x4 (box size 2) up to 25x25 (box size 5), 9x9 being STANDARD
+*  cells are flat 0 based indices (row * size + column) like in SudokuSolver, candidates are bitmasks with bit
+*  (value-1) per value, which an int holds for up to 25 values
+*  the tables are built once per box size and shared by every grid and solver of that size */
+class GridGeometry
+{
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+
+    private static final GridGeometry[] GEOMETRIES = new GridGeometry[MAX_BOX_SIZE + 1];
+    static
+    {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++)
+            GEOMETRIES[boxSize] = new GridGeometry(boxSize);
+    }
+    public static final GridGeometry STANDARD = GEOMETRIES[3];
+
+    public final int boxSize;
+    public final int size;
+    public final int cells;
+    public final int all;  // all of 1 to size
+
+    // row, column and box of every cell
+    public final int[] rowOf;
+    public final int[] columnOf;
+    public final int[] boxOf;
+    // the cells of the rows, then the columns, then the boxes
+    public final int[][] units;
+    // the other cells sharing a row, column or box with every cell
+    public final int[][] peers;
+    // a random key per cell and value for Zobrist hashes, 0 for empty cells so that only the given fields count
+    final long[][] zobrist;
+
+    private GridGeometry(int boxSize)
+    {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cells = this.size * this.size;
+        this.all = (1 << this.size) - 1;
+
+        this.rowOf = new int[this.cells];
+        this.columnOf = new int[this.cells];
+        this.boxOf = new int[this.cells];
+        this.units = new int[3 * this.size][this.size];
+        for (int cell = 0; cell < this.cells; cell++)
+        {
+            int row = cell / this.size, column = cell % this.size, box = BoxIndex(row, column);
+            this.rowOf[cell] = row;  this.columnOf[cell] = column;  this.boxOf[cell] = box;
+            this.units[row][column] = cell;
+            this.units[this.size + column][row] = cell;
+            this.units[2 * this.size + box][(row % boxSize) * boxSize + column % boxSize] = cell;
+        }
+        // size - 1 in the row, as many in the column, and the rest of the box outside both
+        this.peers = new int[this.cells][2 * (this.size - 1) + (boxSize - 1) * (boxSize - 1)];
+        for (int cell = 0; cell < this.cells; cell++)
+        {
+            int n = 0;
+            for (int other = 0; other < this.cells; other++)
+            {
+                if (other != cell && (this.rowOf[other] == this.rowOf[cell] || this.columnOf[other] == this.columnOf[cell] || this.boxOf[other] == this.boxOf[cell]))
+                    this.peers[cell][n++] = other;
+            }
+        }
+
+        // the same seed for every size, so the keys of 9x9 grids stay what they have always been
+        this.zobrist = new long[this.cells][this.size + 1];
+        SplittableRandom random = new SplittableRandom(0x5D0C0L);
+        for (long[] keys : this.zobrist)
+        {
+            for (int value = 1; value <= this.size; value++)
+                keys[value] = random.nextLong();
+        }
+    }
+
+    public static GridGeometry Of(int boxSize)
+    {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE)
+            throw new IllegalArgumentException("box size " + boxSize + " is not within " + MIN_BOX_SIZE + " to " + MAX_BOX_SIZE);
+        return GEOMETRIES[boxSize];
+    }
+
+    /* the geometry of a grid, which has to be square with one of the sizes 4, 9, 16 or 25 */
+    public static GridGeometry Of(int[][] grid)
+    {
+        int boxSize = (int) Math.round(Math.sqrt(grid.length));
+        if (boxSize * boxSize != grid.length || boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE)
+            throw new IllegalArgumentException("a grid of " + grid.length + " rows is none of 4x4, 9x9, 16x16 or 25x25");
+        for (int[] row : grid)
+        {
+            if (row.length != grid.length)
+                throw new IllegalArgumentException("the grid is not square");
+        }
+        return GEOMETRIES[boxSize];
+    }
+
+    public int BoxIndex(int row, int column)
+    {
+        return (row / this.boxSize) * this.boxSize + column / this.boxSize;
+    }
+
+    /* Zobrist hash of a grid of this size, the xor of the keys of its given fields */
+    public long Hash(int[][] grid)
+    {
+        long hash = 0;
+        for (int i = 0, cell = 0; i < this.size; i++)
+        {
+            for (int j = 0; j < this.size; j++, cell++)
+                hash ^= this.zobrist[cell][grid[i][j]];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.size + "x" + this.size;
+    }
+}
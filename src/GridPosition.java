@@ -17,8 +17,27 @@ class GridPosition
         }
     }
 
+    @Override
+    public int hashCode()
+    {
+        // the cell index in the largest grid, so different positions of any grid never collide
+        return Cell(GridGeometry.MAX_BOX_SIZE * GridGeometry.MAX_BOX_SIZE);
+    }
+
     public GridPosition(int row, int column)
     {
         this.row = row;  this.column = column;
     }
+
+    /* the position of a cell index in row-major order, in a grid with size rows and columns */
+    public static GridPosition OfCell(int cell, int size)
+    {
+        return new GridPosition(cell / size + 1, cell % size + 1);
+    }
+
+    /* the cell index of the position in row-major order, 0 to size * size - 1 in a grid with size rows and columns */
+    public int Cell(int size)
+    {
+        return (this.row - 1) * size + this.column - 1;
+    }
 }
@@ -0,0 +1,27 @@
+import java.util.List;
+
+/* a solver backend for SudokuGrid, implementations hold search state and are meant to be reused (one per thread) */
+interface GridSolver
+{
+    /* loads a grid (0 for empty) of a size the solver handles, returns false if the given values already conflict with each other */
+    boolean Load(int[][] grid);
+    
+    int EmptyCount();
+    
+    /* fills the loaded board with the first solution found, the board is left unchanged if there is none */
+    boolean Solve();
+    
+    /* after a successful Solve, how many empty cells were filled by inference and how many by guessing */
+    int SolvedByLogic();
+    
+    int SolvedBySearch();
+    
+    /* counts solutions of the loaded board, stops as soon as limit solutions are found */
+    long CountSolutions(long limit);
+    
+    /* adds a copy of every solution of the loaded board to the list */
+    void CollectSolutions(List<int[][]> solutions);
+    
+    /* writes the current board into a grid of its size */
+    void CopyTo(int[][] grid);
+}
@@ -0,0 +1,393 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/* the symmetries of the grid: relabeling the digits, reordering the rows within a band, the columns within a stack,
+*  the bands, the stacks, and transposing, equivalent grids have the same number of solutions and so the same rank
+*  the canonical form of a grid is the smallest of all grids equivalent to it, read row by row with 0 for empty fields
+*  and the digits relabeled 1, 2, 3... in the order they first appear, so every equivalent grid has the same one
+*  "smallest" first compares the keys of the rows, then those of the columns, in order, and only then the fields, a
+*  line's key depends on its given fields only and not on the order of the crossing lines, which rules out most
+*  orders before a single field is read
+*  the search picks the first row and the column order, then the other rows, and drops a branch as soon as it reads
+*  larger than the smallest grid found so far, of two identical lines of a band or stack only the first is tried,
+*  nothing is allocated per call */
+class GridSymmetry
+{
+    // above any value, marks the part of the smallest grid that is not known yet
+    private static final int NONE = 10;
+
+    // the search state, one per thread
+    private static final ThreadLocal<GridSymmetry> INSTANCES = ThreadLocal.withInitial(GridSymmetry::new);
+
+    // the grid as given and transposed, flat and row-major
+    private final int[][] sources = new int[2][81];
+    private int[] source;
+    // key of every row of both sources (the columns of one are the rows of the other), the smallest sequence they
+    // can be put in, and which lines are the same
+    private final long[][] keys = new long[2][9];
+    private final long[][] sortedKeys = new long[2][9];  // every band sorted, the bands in place
+    private final long[][] smallestKeys = new long[2][9];
+    private final int[] columnCounts = new int[9];
+    private final int[] bandOrder = new int[3];
+    private final boolean[][] sameRows = new boolean[9][9];
+    private final boolean[][] sameColumns = new boolean[9][9];
+    private long[] rowKey;
+    private long[] columnKey;
+    private long[] sortedRow;
+    private long[] sortedColumn;
+    private long[] smallestRow;
+    private long[] smallestColumn;
+    // source row of every row and source column of every column of the grid being built
+    private final int[] rows = new int[9];
+    private final int[] columns = new int[9];
+    private final boolean[] usedRow = new boolean[9];
+    private final boolean[] usedBand = new boolean[3];
+    private final boolean[] usedColumn = new boolean[9];
+    private final boolean[] usedStack = new boolean[3];
+    // labels[depth][digit] is the label given to a digit by the rows above depth, nextLabels[depth] the next free one
+    private final int[][] labels = new int[10][10];
+    private final int[] nextLabels = new int[10];
+    // the smallest grid so far, the first row only as 0 for empty and 1 for given until the search is done
+    private final int[] best = new int[81];
+
+    /* the canonical form of the grid */
+    public static int[][] Canonical(int[][] grid)
+    {
+        int[] best = INSTANCES.get().Canonicalize(grid);
+        int[][] canonical = new int[9][9];
+        for (int cell = 0; cell < 81; cell++)
+            canonical[cell / 9][cell % 9] = best[cell];
+        return canonical;
+    }
+
+    /* Zobrist hash of the canonical form, the same for every equivalent grid */
+    public static long CanonicalHash(int[][] grid)
+    {
+        return SudokuGrid.Hash(INSTANCES.get().Canonicalize(grid));
+    }
+
+    public static boolean Equivalent(int[][] grid, int[][] other)
+    {
+        return Arrays.deepEquals(Canonical(grid), Canonical(other));
+    }
+
+    /* a random grid equivalent to the given one, every symmetry is equally likely */
+    public static int[][] RandomTransform(int[][] grid, SplittableRandom random)
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("GridSymmetry only handles 9x9 grids");
+        int[] relabel = new int[10];
+        int[] digits = Shuffled(9, random);
+        for (int digit = 1; digit <= 9; digit++)
+            relabel[digit] = digits[digit - 1] + 1;
+        int[] rowMap = RandomLinePermutation(random);
+        int[] columnMap = RandomLinePermutation(random);
+        boolean transpose = random.nextBoolean();
+
+        int[][] transformed = new int[9][9];
+        for (int i = 0; i < 9; i++)
+        {
+            for (int j = 0; j < 9; j++)
+            {
+                int value = transpose ? grid[columnMap[j]][rowMap[i]] : grid[rowMap[i]][columnMap[j]];
+                transformed[i][j] = relabel[value];
+            }
+        }
+        return transformed;
+    }
+
+    /* a permutation of the 9 rows (or columns) that keeps every band (stack) together */
+    private static int[] RandomLinePermutation(SplittableRandom random)
+    {
+        int[] bands = Shuffled(3, random);
+        int[] lines = new int[9];
+        for (int band = 0; band < 3; band++)
+        {
+            int[] within = Shuffled(3, random);
+            for (int k = 0; k < 3; k++)
+                lines[band * 3 + k] = bands[band] * 3 + within[k];
+        }
+        return lines;
+    }
+
+    private static int[] Shuffled(int n, SplittableRandom random)
+    {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++)
+            values[i] = i;
+        for (int i = n - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];  values[i] = values[j];  values[j] = swap;
+        }
+        return values;
+    }
+
+    /* the canonical form, flat and row-major, in the instance's own array */
+    private int[] Canonicalize(int[][] grid)
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("GridSymmetry only handles 9x9 grids");
+        for (int cell = 0; cell < 81; cell++)
+        {
+            this.sources[0][cell] = grid[cell / 9][cell % 9];
+            this.sources[1][cell] = grid[cell % 9][cell / 9];
+        }
+        for (int t = 0; t < 2; t++)
+        {
+            Keys(this.sources[t], this.keys[t]);
+            SmallestOrder(this.keys[t], this.sortedKeys[t], this.smallestKeys[t]);
+        }
+        // only the transpositions with the smallest keys can give the smallest grid
+        int compared = Arrays.compare(this.smallestKeys[0], this.smallestKeys[1]);
+        if (compared == 0)
+            compared = Arrays.compare(this.smallestKeys[1], this.smallestKeys[0]);
+
+        Arrays.fill(this.best, NONE);
+        for (int t = 0; t < 2; t++)
+        {
+            if ((t == 0 && compared > 0) || (t == 1 && compared < 0))
+                continue;
+            this.source = this.sources[t];
+            this.rowKey = this.keys[t];  this.columnKey = this.keys[1 - t];
+            this.sortedRow = this.sortedKeys[t];  this.sortedColumn = this.sortedKeys[1 - t];
+            this.smallestRow = this.smallestKeys[t];  this.smallestColumn = this.smallestKeys[1 - t];
+            SameLines(this.source);
+            for (int row = 0; row < 9; row++)
+            {
+                if (!Fits(this.rowKey, this.sortedRow, this.smallestRow, row, 0) || SameAsEarlier(this.sameRows, row))
+                    continue;
+                this.rows[0] = row;
+                this.usedRow[row] = true;  this.usedBand[row / 3] = true;
+                ChooseColumn(0);
+                this.usedRow[row] = false;  this.usedBand[row / 3] = false;
+            }
+        }
+        // the first row reads 1, 2, 3... in its given fields
+        int label = 0;
+        for (int k = 0; k < 9; k++)
+        {
+            if (this.best[k] != 0)
+                this.best[k] = ++label;
+        }
+        return this.best;
+    }
+
+    /* the key of a row is its number of given fields and how many given fields the columns of those have, as a
+    *  histogram, neither changes when the columns are reordered */
+    private void Keys(int[] source, long[] rowKeys)
+    {
+        Arrays.fill(this.columnCounts, 0);
+        for (int cell = 0; cell < 81; cell++)
+        {
+            if (source[cell] != 0)
+                this.columnCounts[cell % 9]++;
+        }
+        for (int row = 0; row < 9; row++)
+        {
+            long count = 0, histogram = 0;
+            for (int column = 0; column < 9; column++)
+            {
+                if (source[row * 9 + column] != 0)
+                {
+                    count++;
+                    histogram += 1L << (4 * (this.columnCounts[column] - 1));
+                }
+            }
+            rowKeys[row] = count << 36 | histogram;
+        }
+    }
+
+    /* the smallest sequence the keys can be put in, every band sorted, then the bands */
+    private void SmallestOrder(long[] keys, long[] sorted, long[] smallest)
+    {
+        System.arraycopy(keys, 0, sorted, 0, 9);
+        for (int band = 0; band < 3; band++)
+        {
+            Sort3(sorted, band * 3);
+            this.bandOrder[band] = band;
+        }
+        System.arraycopy(sorted, 0, smallest, 0, 9);
+        for (int i = 1; i < 3; i++)
+        {
+            for (int j = i; j > 0 && CompareBands(smallest, this.bandOrder[j], this.bandOrder[j - 1]) < 0; j--)
+            {
+                int swap = this.bandOrder[j];  this.bandOrder[j] = this.bandOrder[j - 1];  this.bandOrder[j - 1] = swap;
+            }
+        }
+        long first0 = smallest[this.bandOrder[0] * 3], first1 = smallest[this.bandOrder[0] * 3 + 1], first2 = smallest[this.bandOrder[0] * 3 + 2];
+        long second0 = smallest[this.bandOrder[1] * 3], second1 = smallest[this.bandOrder[1] * 3 + 1], second2 = smallest[this.bandOrder[1] * 3 + 2];
+        long third0 = smallest[this.bandOrder[2] * 3], third1 = smallest[this.bandOrder[2] * 3 + 1], third2 = smallest[this.bandOrder[2] * 3 + 2];
+        smallest[0] = first0;  smallest[1] = first1;  smallest[2] = first2;
+        smallest[3] = second0;  smallest[4] = second1;  smallest[5] = second2;
+        smallest[6] = third0;  smallest[7] = third1;  smallest[8] = third2;
+    }
+
+    private static void Sort3(long[] values, int from)
+    {
+        for (int i = from + 1; i < from + 3; i++)
+        {
+            for (int j = i; j > from && values[j] < values[j - 1]; j--)
+            {
+                long swap = values[j];  values[j] = values[j - 1];  values[j - 1] = swap;
+            }
+        }
+    }
+
+    /* whether the line can go to position in the smallest sequence, a line starting a band also needs its whole band
+    *  to fit there, so that a branch never runs out of lines that fit */
+    private static boolean Fits(long[] keys, long[] sorted, long[] smallest, int line, int position)
+    {
+        if (keys[line] != smallest[position])
+            return false;
+        int band = line / 3 * 3;
+        return position % 3 != 0 || Arrays.equals(sorted, band, band + 3, smallest, position, position + 3);
+    }
+
+    private static int CompareBands(long[] keys, int band, int other)
+    {
+        return Arrays.compare(keys, band * 3, band * 3 + 3, keys, other * 3, other * 3 + 3);
+    }
+
+    /* which rows of a band, and which columns of a stack, are identical, swapping those changes nothing */
+    private void SameLines(int[] source)
+    {
+        for (int line = 0; line < 9; line++)
+        {
+            for (int other = line / 3 * 3; other < line; other++)
+            {
+                boolean sameRow = true, sameColumn = true;
+                for (int k = 0; k < 9; k++)
+                {
+                    sameRow &= source[line * 9 + k] == source[other * 9 + k];
+                    sameColumn &= source[k * 9 + line] == source[k * 9 + other];
+                }
+                this.sameRows[line][other] = sameRow;
+                this.sameColumns[line][other] = sameColumn;
+            }
+        }
+    }
+
+    /* whether an earlier line of the same band or stack is identical to this one and still free, that one has been
+    *  tried in its place already */
+    private boolean SameAsEarlier(boolean[][] same, int line)
+    {
+        boolean[] used = same == this.sameRows ? this.usedRow : this.usedColumn;
+        for (int other = line / 3 * 3; other < line; other++)
+        {
+            if (same[line][other] && !used[other])
+                return true;
+        }
+        return false;
+    }
+
+    /* the source column of the column at position, the first row is compared by its given fields only, which is
+    *  what decides it since it is always relabeled 1, 2, 3... */
+    private void ChooseColumn(int position)
+    {
+        if (position == 9)
+        {
+            int[] firstLabels = this.labels[1];
+            Arrays.fill(firstLabels, 0);
+            int label = 0;
+            for (int k = 0; k < 9; k++)
+            {
+                int digit = this.source[this.rows[0] * 9 + this.columns[k]];
+                if (digit != 0)
+                    firstLabels[digit] = ++label;
+            }
+            this.nextLabels[1] = label;
+            ChooseRow(1);
+            return;
+        }
+
+        // a new stack starts with any column of an unused stack, the others come from the stack already started
+        int from = 0, to = 9;
+        if (position % 3 != 0)
+        {
+            from = this.columns[position - 1] / 3 * 3;
+            to = from + 3;
+        }
+        for (int column = from; column < to; column++)
+        {
+            if (this.usedColumn[column] || (position % 3 == 0 && this.usedStack[column / 3]))
+                continue;
+            if (!Fits(this.columnKey, this.sortedColumn, this.smallestColumn, column, position) || SameAsEarlier(this.sameColumns, column))
+                continue;
+            int value = this.source[this.rows[0] * 9 + column] != 0 ? 1 : 0;
+            if (value > this.best[position])
+                continue;
+            if (value < this.best[position])
+            {
+                this.best[position] = value;
+                Arrays.fill(this.best, position + 1, 81, NONE);
+            }
+            this.columns[position] = column;
+            this.usedColumn[column] = true;  this.usedStack[column / 3] = true;
+            ChooseColumn(position + 1);
+            this.usedColumn[column] = false;
+            if (position % 3 == 0)
+                this.usedStack[column / 3] = false;
+        }
+    }
+
+    /* the source row of the row at depth, the columns are fixed by now */
+    private void ChooseRow(int depth)
+    {
+        if (depth == 9)
+            return;
+
+        int from = 0, to = 9;
+        if (depth % 3 != 0)
+        {
+            from = this.rows[depth - 1] / 3 * 3;
+            to = from + 3;
+        }
+        int[] labelsAbove = this.labels[depth];
+        int[] labelsBelow = this.labels[depth + 1];
+        int offset = depth * 9;
+        for (int row = from; row < to; row++)
+        {
+            if (this.usedRow[row] || (depth % 3 == 0 && this.usedBand[row / 3]))
+                continue;
+            if (!Fits(this.rowKey, this.sortedRow, this.smallestRow, row, depth) || SameAsEarlier(this.sameRows, row))
+                continue;
+
+            System.arraycopy(labelsAbove, 0, labelsBelow, 0, 10);
+            int label = this.nextLabels[depth];
+            boolean smaller = false, larger = false;
+            for (int k = 0; k < 9 && !larger; k++)
+            {
+                int digit = this.source[row * 9 + this.columns[k]];
+                int value = 0;
+                if (digit != 0)
+                {
+                    if (labelsBelow[digit] == 0)
+                        labelsBelow[digit] = ++label;
+                    value = labelsBelow[digit];
+                }
+                if (smaller)
+                    this.best[offset + k] = value;
+                else if (value > this.best[offset + k])
+                    larger = true;
+                else if (value < this.best[offset + k])
+                {
+                    smaller = true;
+                    this.best[offset + k] = value;
+                }
+            }
+            if (larger)
+                continue;
+            if (smaller)
+                Arrays.fill(this.best, offset + 9, 81, NONE);
+
+            this.nextLabels[depth + 1] = label;
+            this.rows[depth] = row;
+            this.usedRow[row] = true;  this.usedBand[row / 3] = true;
+            ChooseRow(depth + 1);
+            this.usedRow[row] = false;
+            if (depth % 3 == 0)
+                this.usedBand[row / 3] = false;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/* checks that grids break no rule: every value within 1 to size, and none twice in a row, column or box, a full check
+*  also wants every field filled, i.e. a solved grid
+*  batches of grids are checked many at a time: they are turned into a struct-of-arrays layout, one array per cell
+*  holding that cell's value (as its bit) in every grid of the batch, and every unit is then checked with ands and
+*  ors over the grids, so one SIMD instruction checks a field of several grids
+*  with --add-modules jdk.incubator.vector on the JVM's command line that is done with the Vector API
+*  (VectorGridValidator), without it by plain loops over arrays, which the JIT may or may not vectorize
+*  LANES grids go through at a time, enough for the vector loops to run long, few enough for their bits to stay in
+*  the cache, about 3 times faster than checking the grids one by one
+*  small batches, where turning the layout around costs more than it saves, are checked one grid after the other */
+class GridValidator
+{
+    // below this many grids the batch is checked grid by grid
+    private static final int SCALAR_BELOW = 16;
+    private static final int LANES = 128;
+    // whether the JVM was started with the incubating Vector API
+    public static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final GridGeometry geometry;
+    private final boolean vector;
+    // bits[cell][lane], the value of the cell in every grid of the batch as its bit, 0 for an empty field
+    private final int[][] bits;
+    // per lane, the values seen in the current unit, those seen twice, and whether the grid broke a rule so far
+    private final int[] seen;
+    private final int[] twice;
+    private final int[] broken;
+
+    public GridValidator()
+    {
+        this(GridGeometry.STANDARD);
+    }
+
+    /* checks grids of the geometry's size, with the Vector API if the JVM has it */
+    public GridValidator(GridGeometry geometry)
+    {
+        this(geometry, VECTOR_API);
+    }
+
+    /* same as above, vector tells whether to use the Vector API, which is only possible if VECTOR_API */
+    public GridValidator(GridGeometry geometry, boolean vector)
+    {
+        if (vector && !VECTOR_API)
+            throw new IllegalArgumentException("the Vector API needs --add-modules jdk.incubator.vector");
+        this.geometry = geometry;
+        this.vector = vector;
+        this.bits = new int[geometry.cells][LANES];
+        this.seen = new int[LANES];
+        this.twice = new int[LANES];
+        this.broken = new int[LANES];
+    }
+
+    /* checks n grids stored one after the other in cells from offset, one value per cell each (0 for empty), as
+    *  SudokuSolver.CopyTo writes them, valid[i] tells whether the i-th grid is legal, and if full also complete */
+    public void Validate(byte[] cells, int offset, int n, boolean full, boolean[] valid)
+    {
+        int size = this.geometry.cells;
+        if (n < SCALAR_BELOW)
+        {
+            for (int i = 0; i < n; i++)
+                valid[i] = IsValid(this.geometry, cells, offset + i * size, full);
+            return;
+        }
+        for (int start = 0; start < n; start += LANES)
+        {
+            int lanes = Math.min(LANES, n - start);
+            Load(cells, offset + start * size, lanes);
+            CheckUnits(lanes, full);
+            for (int lane = 0; lane < lanes; lane++)
+                valid[start + lane] = this.broken[lane] == 0;
+        }
+    }
+
+    /* the check of a single grid, from offset in cells */
+    public static boolean IsValid(GridGeometry geometry, byte[] cells, int offset, boolean full)
+    {
+        for (int[] unit : geometry.units)
+        {
+            int seen = 0;
+            for (int cell : unit)
+            {
+                int value = cells[offset + cell];
+                if (value < 0 || value > geometry.size)
+                    return false;
+                int bit = (1 << value) >> 1;  // 0 for an empty field
+                if ((seen & bit) != 0)
+                    return false;
+                seen |= bit;
+            }
+            if (full && seen != geometry.all)
+                return false;
+        }
+        return true;
+    }
+
+    /* same as above, for a grid of any size */
+    public static boolean IsValid(int[][] grid, boolean full)
+    {
+        GridGeometry geometry = GridGeometry.Of(grid);
+        for (int[] unit : geometry.units)
+        {
+            int seen = 0;
+            for (int cell : unit)
+            {
+                int value = grid[geometry.rowOf[cell]][geometry.columnOf[cell]];
+                if (value < 0 || value > geometry.size)
+                    return false;
+                int bit = (1 << value) >> 1;
+                if ((seen & bit) != 0)
+                    return false;
+                seen |= bit;
+            }
+            if (full && seen != geometry.all)
+                return false;
+        }
+        return true;
+    }
+
+    /* turns the grids around into bits, a value out of range marks its grid as broken right away */
+    private void Load(byte[] cells, int offset, int lanes)
+    {
+        int size = this.geometry.cells, maxValue = this.geometry.size;
+        for (int lane = 0, from = offset; lane < lanes; lane++, from += size)
+        {
+            int outOfRange = 0;
+            for (int cell = 0; cell < size; cell++)
+            {
+                int value = cells[from + cell];
+                this.bits[cell][lane] = (1 << value) >> 1;
+                outOfRange |= value < 0 || value > maxValue ? 1 : 0;
+            }
+            this.broken[lane] = outOfRange;
+        }
+    }
+
+    /* the lane loops are kept free of branches and calls so that they vectorize */
+    private void CheckUnits(int lanes, boolean full)
+    {
+        int[] seen = this.seen, twice = this.twice, broken = this.broken;
+        int missing = full ? this.geometry.all : 0;
+        if (this.vector)
+        {
+            VectorGridValidator.CheckUnits(this.bits, this.geometry.units, lanes, missing, broken);
+            return;
+        }
+        for (int[] unit : this.geometry.units)
+        {
+            for (int lane = 0; lane < lanes; lane++)
+            {
+                seen[lane] = 0;  twice[lane] = 0;
+            }
+            for (int cell : unit)
+            {
+                int[] column = this.bits[cell];
+                for (int lane = 0; lane < lanes; lane++)
+                {
+                    twice[lane] |= seen[lane] & column[lane];
+                    seen[lane] |= column[lane];
+                }
+            }
+            // a full unit has seen every value, (seen & missing) ^ missing is 0 then and always is if not full
+            for (int lane = 0; lane < lanes; lane++)
+                broken[lane] |= twice[lane] | ((seen[lane] & missing) ^ missing);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/* solves and ranks puzzle files of fixed-length records through memory mapped buffers, for archives too large to read
+*  the input records are 81 characters ('1' to '9', '.' or '0' for empty) plus the line ending, '\n' or '\r\n' the
+*  same for every line, the output records are
+*      <81 characters of the solution, or the puzzle with '.' if there is none>,<solutions>,<given fields>\n
+*  where solutions is 0, 1 or 2 (2 or more), so the rank as in SudokuGrid.GetRank is solutions + given fields / 82
+*  a record with anything else in its 81 cells or its line ending fails the whole run with an IOException, as in
+*  BulkSolver
+*  nothing is allocated per puzzle, every thread parses into and solves on its own reused buffers */
+class MappedPuzzleFile
+{
+    public static final int OUTPUT_RECORD = 87;
+
+    // one scratch board and solver per thread
+    private static final ThreadLocal<SudokuSolver> SOLVERS = ThreadLocal.withInitial(SudokuSolver::new);
+    private static final ThreadLocal<byte[]> CELLS = ThreadLocal.withInitial(() -> new byte[81]);
+
+    private final int inputRecord;
+
+    private MappedByteBuffer input;
+    private MappedByteBuffer output;
+    // the number of records before the mapped window
+    private long first;
+
+    private MappedPuzzleFile(int inputRecord)
+    {
+        this.inputRecord = inputRecord;
+    }
+
+    /* usage: MappedPuzzleFile <input file> <output file> */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.out.println("usage: MappedPuzzleFile <input file> <output file>");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long n = Process(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(String.format("processed %d puzzles in %d ms", n, System.currentTimeMillis() - start));
+    }
+
+    /* solves every record of inputPath into outputPath, returns the number of records */
+    public static long Process(Path inputPath, Path outputPath) throws IOException
+    {
+        try (FileChannel in = FileChannel.open(inputPath, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(outputPath, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            long size = in.size();
+            if (size == 0)
+                return 0;
+            int inputRecord = RecordLength(in);
+            // the last line may come without its line ending
+            long recordCount = size / inputRecord + (size % inputRecord >= 81 ? 1 : 0);
+            MappedPuzzleFile file = new MappedPuzzleFile(inputRecord);
+
+            // a mapping is limited to 2GB, so large files are processed in windows of whole records
+            long window = Integer.MAX_VALUE / Math.max(inputRecord, OUTPUT_RECORD);
+            for (long first = 0; first < recordCount; first += window)
+            {
+                int n = (int) Math.min(window, recordCount - first);
+                long inputStart = first * inputRecord;
+                file.input = in.map(FileChannel.MapMode.READ_ONLY, inputStart, Math.min((long) n * inputRecord, size - inputStart));
+                file.output = out.map(FileChannel.MapMode.READ_WRITE, first * OUTPUT_RECORD, (long) n * OUTPUT_RECORD);
+                file.first = first;
+                try
+                {
+                    IntStream.range(0, n).parallel().forEach(file::ProcessRecord);
+                }
+                catch (UncheckedIOException e)
+                {
+                    throw e.getCause();  // a malformed record
+                }
+                file.output.force();
+            }
+            return recordCount;
+        }
+    }
+
+    /* the length of the first line including its line ending */
+    private static int RecordLength(FileChannel in) throws IOException
+    {
+        MappedByteBuffer head = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(in.size(), 4096));
+        for (int i = 0; i < head.limit(); i++)
+        {
+            if (head.get(i) == '\n')
+            {
+                if (i < 81)
+                    throw new IOException("the first line is shorter than 81 characters");
+                if (i > 82 || (i == 82 && head.get(81) != '\r'))
+                    throw new IOException("line 1: expected the line to end with '\\n' or '\\r\\n' after 81 cells");
+                return i + 1;
+            }
+        }
+        if (head.limit() == in.size() && head.limit() >= 81)  // a single record without line ending
+            return head.limit();
+        throw new IOException("no line ending found in the first 4096 bytes");
+    }
+
+    private void ProcessRecord(int index)
+    {
+        SudokuSolver solver = SOLVERS.get();
+        byte[] cells = CELLS.get();
+        int inputOffset = index * this.inputRecord;
+        int outputOffset = index * OUTPUT_RECORD;
+
+        int givens = 0;
+        for (int i = 0; i < 81; i++)
+        {
+            byte c = this.input.get(inputOffset + i);
+            if (c >= '1' && c <= '9')
+            {
+                cells[i] = (byte) (c - '0');
+                givens++;
+            }
+            else if (c == '.' || c == '0')
+                cells[i] = 0;
+            else
+                throw new UncheckedIOException(new IOException(String.format("line %d: expected 81 cells of 1 to 9, '.' or '0'", this.first + index + 1)));
+        }
+        // the line ending, which the last line may go without
+        for (int i = 81; i < this.inputRecord && inputOffset + i < this.input.limit(); i++)
+        {
+            byte expected = i == this.inputRecord - 1 ? (byte) '\n' : (byte) '\r';
+            if (this.input.get(inputOffset + i) != expected)
+                throw new UncheckedIOException(new IOException(String.format("line %d: expected the line to end like the first one after 81 cells", this.first + index + 1)));
+        }
+
+        // the count also writes the first solution it finds over the puzzle, so there is no second search for it
+        int solutions = solver.Load(cells, 0) ? (int) solver.CountSolutions(2, cells, 0, 1) : 0;
+
+        for (int i = 0; i < 81; i++)
+            this.output.put(outputOffset + i, cells[i] == 0 ? (byte) '.' : (byte) ('0' + cells[i]));
+        this.output.put(outputOffset + 81, (byte) ',');
+        this.output.put(outputOffset + 82, (byte) ('0' + solutions));
+        this.output.put(outputOffset + 83, (byte) ',');
+        this.output.put(outputOffset + 84, (byte) ('0' + givens / 10));
+        this.output.put(outputOffset + 85, (byte) ('0' + givens % 10));
+        this.output.put(outputOffset + 86, (byte) '\n');
+    }
+}
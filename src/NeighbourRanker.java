@@ -0,0 +1,210 @@
+/* ranks the neighbours of an annealing run without recounting them from scratch
+*  a neighbour differs from the current grid by one added or removed clue, and the solutions of the current grid
+*  (up to the count limit) are kept, so
+*      adding value v at a cell: the solutions are the current ones having v there, no search at all
+*      removing value v from a cell: the solutions are the current ones plus those not having v there, only the latter
+*      are searched for, and not at all if the current grid already reached the limit
+*  anything else (the first grid, a grid swapped in from elsewhere) is looked up in the rank cache by its canonical
+*  hash, so that any equivalent grid counted before can answer it, or counted from scratch and put there (except for
+*  full grids, which the cache has as having no solution), the other two cases are cheaper than the canonical form,
+*  grids of other sizes than 9x9 have no canonical form (see GridSymmetry), those are always counted from scratch
+*  Rank gives the same value as SudokuGrid.GetRank(limit), Accept makes the grid ranked last the current one
+*  it holds the current grid of one annealing run, so it must not be shared by runs or threads, AnnealTempering gives
+*  every chain a copy of the one it is configured with */
+class NeighbourRanker implements RankFunction
+{
+    // solutions kept per grid, grids with more of them (only possible with a limit above this) are counted every time
+    private static final int MAX_CACHED_SOLUTIONS = 1024;
+
+    private final GridGeometry geometry;
+    private final SudokuSolver solver;
+    private final RankCache cache;
+    private final int limit;
+    private final int capacity;
+
+    private Evaluation current;
+    private Evaluation pending;
+
+    // how many ranks were worked out from the current grid's solutions, and how many were counted from scratch
+    private long incremental;
+    private long counted;
+
+    public NeighbourRanker(int limit, RankCache cache)
+    {
+        this(GridGeometry.STANDARD, limit, cache);
+    }
+
+    public NeighbourRanker(GridGeometry geometry, int limit, RankCache cache)
+    {
+        this.geometry = geometry;
+        this.solver = new SudokuSolver(geometry);
+        this.cache = cache;
+        this.limit = limit;
+        this.capacity = Math.min(limit, MAX_CACHED_SOLUTIONS);
+        this.current = new Evaluation(geometry, this.capacity);
+        this.pending = new Evaluation(geometry, this.capacity);
+    }
+
+    /* a ranker with the geometry, limit and cache of other, but none of its state */
+    public NeighbourRanker(NeighbourRanker other)
+    {
+        this(other.geometry, other.limit, other.cache);
+    }
+
+    @Override
+    public double Rank(SudokuGrid sudokuGrid)
+    {
+        Evaluation child = this.pending;
+        int givens = child.Set(sudokuGrid.originalGrid);
+
+        int changed = this.current.valid ? this.current.Difference(child) : -2;
+        if (changed >= 0 && this.current.cells[changed] == 0 && this.current.known)
+            Filter(child, changed);
+        else if (changed >= 0 && child.cells[changed] == 0)
+            Widen(child, changed, this.current.cells[changed]);
+        else if (givens == this.geometry.cells || this.geometry != GridGeometry.STANDARD)
+            Count(child);
+        else
+            CountCached(child, GridSymmetry.CanonicalHash(sudokuGrid.originalGrid));
+
+        // a grid without any empty field has always been reported as having no solution
+        return SudokuGrid.RankOf(givens == this.geometry.cells ? 0 : (int) child.count, givens, this.geometry.cells);
+    }
+
+    /* the grid ranked last becomes the one the next neighbours are compared with */
+    @Override
+    public void Accept()
+    {
+        Evaluation accepted = this.pending;
+        this.pending = this.current;
+        this.current = accepted;
+    }
+
+    public long Incremental()
+    {
+        return this.incremental;
+    }
+
+    public long Counted()
+    {
+        return this.counted;
+    }
+
+    /* a clue was added, keep the current solutions that agree with it */
+    private void Filter(Evaluation child, int cell)
+    {
+        byte value = child.cells[cell];
+        int cells = this.geometry.cells;
+        int n = 0;
+        for (int i = 0; i < this.current.count; i++)
+        {
+            int offset = i * cells;
+            if (this.current.solutions[offset + cell] == value)
+                System.arraycopy(this.current.solutions, offset, child.solutions, n++ * cells, cells);
+        }
+        child.count = n;
+        child.known = true;
+        this.incremental++;
+    }
+
+    /* a clue was removed, the solutions are the current ones and those with another value in its cell */
+    private void Widen(Evaluation child, int cell, int value)
+    {
+        this.incremental++;
+        if (this.current.count >= this.limit)
+        {
+            child.count = this.limit;
+            child.known = false;
+            return;
+        }
+        if (!this.solver.Load(child.cells, 0))
+        {
+            child.count = 0;
+            child.known = true;
+            return;
+        }
+        this.solver.Ban(cell, value);
+        int kept = this.current.known ? (int) this.current.count : 0;
+        int cells = this.geometry.cells;
+        System.arraycopy(this.current.solutions, 0, child.solutions, 0, kept * cells);
+        long others = this.solver.CountSolutions(this.limit - this.current.count, child.solutions, kept * cells, this.capacity - kept);
+        child.count = this.current.count + others;
+        child.known = this.current.known && child.count < this.limit && child.count <= this.capacity;
+    }
+
+    /* takes the count from the cache if it needs no solutions kept, i.e. there are none or at least limit of them,
+    *  an exact count in between is counted again so that the solutions are there for the next neighbours */
+    private void CountCached(Evaluation child, long hash)
+    {
+        int count = this.cache.Lookup(hash, this.limit);
+        if (count == 0 || count == this.limit)
+        {
+            child.count = count;
+            child.known = count == 0;
+            return;
+        }
+        Count(child);
+        this.cache.Put(hash, (int) child.count, this.limit);
+    }
+
+    private void Count(Evaluation child)
+    {
+        this.counted++;
+        if (!this.solver.Load(child.cells, 0))
+        {
+            child.count = 0;
+            child.known = true;
+            return;
+        }
+        child.count = this.solver.CountSolutions(this.limit, child.solutions, 0, this.capacity);
+        child.known = child.count < this.limit && child.count <= this.capacity;
+    }
+
+    /* a ranked grid, its solution count up to the limit and, if known, all of its solutions */
+    private static class Evaluation
+    {
+        final byte[] cells;
+        final byte[] solutions;
+        boolean valid;
+        long count;
+        // whether solutions holds every solution, i.e. the count is exact and they all fit
+        boolean known;
+
+        Evaluation(GridGeometry geometry, int capacity)
+        {
+            this.cells = new byte[geometry.cells];
+            this.solutions = new byte[capacity * geometry.cells];
+        }
+
+        /* takes the grid, returns its number of given fields */
+        int Set(int[][] grid)
+        {
+            int size = grid.length;
+            int givens = 0;
+            for (int cell = 0; cell < this.cells.length; cell++)
+            {
+                this.cells[cell] = (byte) grid[cell / size][cell % size];
+                if (this.cells[cell] != 0)
+                    givens++;
+            }
+            this.valid = true;
+            return givens;
+        }
+
+        /* the only cell in which the two grids differ, -1 if they are the same, -2 if they differ in more */
+        int Difference(Evaluation other)
+        {
+            int changed = -1;
+            for (int cell = 0; cell < this.cells.length; cell++)
+            {
+                if (this.cells[cell] != other.cells[cell])
+                {
+                    if (changed != -1)
+                        return -2;
+                    changed = cell;
+                }
+            }
+            return changed;
+        }
+    }
+}
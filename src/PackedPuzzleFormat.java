@@ -0,0 +1,207 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/* compact binary format for storing many grids
+*  a record is an 11 byte bitmap of the given fields (bit i of byte i / 8 for cell i, row-major) followed by their
+*  values minus 1 packed 4 bits each in row-major order, two per byte with the first in the low half,
+*  i.e. 11 + ceil(given fields / 2) bytes, 24 bytes for a 25 clue puzzle, never more than 52
+*  a file is a 16 byte header ("SDKP", version, 3 reserved bytes, record count as a big-endian long) and the records
+*  only 9x9 grids fit into a record, other sizes are turned down with an IllegalArgumentException */
+class PackedPuzzleFormat
+{
+    public static final int MAX_RECORD = 11 + 41;
+    public static final int HEADER = 16;
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'P'};
+    private static final byte VERSION = 1;
+
+    /* encodes a grid into out starting at offset, returns the number of bytes written */
+    public static int Encode(int[][] grid, byte[] out, int offset)
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("PackedPuzzleFormat only handles 9x9 grids");
+        for (int i = 0; i < 11; i++)
+            out[offset + i] = 0;
+        int nibbles = 0;
+        int valuesOffset = offset + 11;
+        for (int cell = 0; cell < 81; cell++)
+        {
+            int value = grid[cell / 9][cell % 9];
+            if (value == 0)
+                continue;
+            out[offset + cell / 8] |= (byte) (1 << (cell % 8));
+            int index = valuesOffset + nibbles / 2;
+            if (nibbles % 2 == 0)
+                out[index] = (byte) (value - 1);
+            else
+                out[index] |= (byte) ((value - 1) << 4);
+            nibbles++;
+        }
+        return 11 + (nibbles + 1) / 2;
+    }
+
+    /* decodes a record from in starting at offset into grid, returns the number of bytes read, a value above 9 (a
+    *  nibble holds up to 16) means the record is corrupt */
+    public static int Decode(byte[] in, int offset, int[][] grid) throws IOException
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("PackedPuzzleFormat only handles 9x9 grids");
+        int nibbles = 0;
+        int valuesOffset = offset + 11;
+        for (int cell = 0; cell < 81; cell++)
+        {
+            if ((in[offset + cell / 8] & (1 << (cell % 8))) == 0)
+            {
+                grid[cell / 9][cell % 9] = 0;
+                continue;
+            }
+            int packed = in[valuesOffset + nibbles / 2];
+            int value = (nibbles % 2 == 0 ? packed & 0xF : (packed >> 4) & 0xF) + 1;
+            if (value > 9)
+                throw new IOException(String.format("cell %d: expected a value of 1 to 9, not %d", cell, value));
+            grid[cell / 9][cell % 9] = value;
+            nibbles++;
+        }
+        return 11 + (nibbles + 1) / 2;
+    }
+
+    /* the size of the record starting at offset, only the bitmap has to be there */
+    public static int RecordLength(byte[] in, int offset)
+    {
+        int givens = 0;
+        for (int i = 0; i < 11; i++)
+            givens += Integer.bitCount(in[offset + i] & 0xFF);
+        return 11 + (givens + 1) / 2;
+    }
+
+    /* writes a packed file, the record count in the header is filled in on close */
+    static class Writer implements Closeable
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        private final byte[] record = new byte[MAX_RECORD];
+        private long count;
+
+        public Writer(Path path) throws IOException
+        {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer.put(MAGIC).put(VERSION).put(new byte[3]).putLong(0);
+        }
+
+        /* writes the puzzle, i.e. the original grid, not what solving or annealing filled in since */
+        public void Write(SudokuGrid sudokuGrid) throws IOException
+        {
+            Write(sudokuGrid.originalGrid);
+        }
+
+        public void Write(int[][] grid) throws IOException
+        {
+            int length = Encode(grid, this.record, 0);
+            if (this.buffer.remaining() < length)
+                Flush();
+            this.buffer.put(this.record, 0, length);
+            this.count++;
+        }
+
+        private void Flush() throws IOException
+        {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining())
+                this.channel.write(this.buffer);
+            this.buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try
+            {
+                Flush();
+                ByteBuffer countBuffer = ByteBuffer.allocate(8).putLong(this.count);
+                countBuffer.flip();
+                this.channel.write(countBuffer, 8);
+            }
+            finally
+            {
+                this.channel.close();
+            }
+        }
+    }
+
+    /* reads a packed file from any stream, record by record */
+    static class Reader implements Closeable
+    {
+        private final DataInputStream input;
+        private final byte[] record = new byte[MAX_RECORD];
+        private final long count;
+        private long read;
+
+        public Reader(InputStream in) throws IOException
+        {
+            this.input = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            byte[] header = new byte[8];
+            this.input.readFully(header);
+            for (int i = 0; i < 4; i++)
+            {
+                if (header[i] != MAGIC[i])
+                    throw new IOException("not a packed puzzle file");
+            }
+            if (header[4] != VERSION)
+                throw new IOException("unsupported packed puzzle file version " + header[4]);
+            this.count = this.input.readLong();
+        }
+
+        /* number of records in the file */
+        public long Count()
+        {
+            return this.count;
+        }
+
+        /* decodes the next record into grid, false at the end of the file */
+        public boolean Next(int[][] grid) throws IOException
+        {
+            if (this.read == this.count)
+                return false;
+            try
+            {
+                this.input.readFully(this.record, 0, 11);
+                int length = RecordLength(this.record, 0);
+                this.input.readFully(this.record, 11, length - 11);
+            }
+            catch (EOFException e)
+            {
+                throw new IOException(String.format("file ends after %d of %d records", this.read, this.count), e);
+            }
+            try
+            {
+                Decode(this.record, 0, grid);
+            }
+            catch (IOException e)
+            {
+                throw new IOException(String.format("record %d: %s", this.read + 1, e.getMessage()), e);
+            }
+            this.read++;
+            return true;
+        }
+
+        /* the next record as a new SudokuGrid, null at the end of the file */
+        public SudokuGrid Next() throws IOException
+        {
+            int[][] grid = new int[9][9];
+            return Next(grid) ? new SudokuGrid(grid) : null;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            this.input.close();
+        }
+    }
+}
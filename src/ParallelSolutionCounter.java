@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/* counts the solutions of a SudokuSolver's board on a ForkJoinPool
+*  the top of the search tree is split into one subtask per candidate of the next cell, below the cutoff every
+*  subtask counts its subtree sequentially on its own copy of the solver, the counts are summed on join */
+class ParallelSolutionCounter extends RecursiveTask<Long>
+{
+    private static final long serialVersionUID = 1L;
+
+    // stop splitting after this many levels, there are enough subtasks to keep every core busy by then
+    private static final int MAX_SPLIT_DEPTH = 6;
+    // a subtree with this few empty cells left is cheaper to count than to split
+    private static final int MIN_SPLIT_EMPTY_CELLS = 30;
+
+    private final SudokuSolver solver;
+    private final int depth;
+    private final long limit;
+
+    /* the solver is owned by the task from here on */
+    public ParallelSolutionCounter(SudokuSolver solver, long limit)
+    {
+        this(solver, 0, limit);
+    }
+
+    private ParallelSolutionCounter(SudokuSolver solver, int depth, long limit)
+    {
+        this.solver = solver;
+        this.depth = depth;
+        this.limit = limit;
+    }
+
+    @Override
+    protected Long compute()
+    {
+        int cell = this.solver.NextCell();
+        if (cell == -1)  // every cell filled, this is a solution
+            return 1L;
+        if (this.depth >= MAX_SPLIT_DEPTH || this.solver.RemainingCount() < MIN_SPLIT_EMPTY_CELLS)
+            return this.solver.CountSolutions(this.limit);
+
+        List<ParallelSolutionCounter> subtasks = new ArrayList<>(9);
+        int candidates = this.solver.Candidates(cell);
+        while (candidates != 0)
+        {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+            SudokuSolver child = new SudokuSolver(this.solver);
+            if (child.Assign(cell, Integer.numberOfTrailingZeros(bit) + 1))  // else the value leads to a contradiction
+                subtasks.add(new ParallelSolutionCounter(child, this.depth + 1, this.limit));
+        }
+        invokeAll(subtasks);
+
+        long count = 0;
+        for (ParallelSolutionCounter subtask : subtasks)
+            count += subtask.join();
+        return Math.min(count, this.limit);
+    }
+}
@@ -0,0 +1,283 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/* generates many puzzles at once, every puzzle is an independent SudokuGenerator.Generate run on a pool of workers
+*  the generated puzzles go through a bounded queue, so workers wait for a slow consumer instead of piling up grids
+*  a batch never has two equivalent puzzles (see GridSymmetry), a puzzle equivalent to an earlier one is made again */
+class PuzzleBatchGenerator implements AutoCloseable
+{
+    // how many times a puzzle is made again when it comes out equivalent to one already in the batch
+    private static final int MAX_DUPLICATE_RETRIES = 10;
+    // put into the queue by the last worker of a batch to stop, never handed out
+    private static final SudokuGrid END = new SudokuGrid(new int[9][9]);
+
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int queueCapacity;
+    // batches that may still have workers, close cancels them
+    private final Set<Batch> open = ConcurrentHashMap.newKeySet();
+
+    public PuzzleBatchGenerator()
+    {
+        this(Runtime.getRuntime().availableProcessors(), 64);
+    }
+
+    public PuzzleBatchGenerator(int workerCount, int queueCapacity)
+    {
+        if (workerCount < 1 || queueCapacity < 1)
+            throw new IllegalArgumentException("need at least one worker and a queue capacity of at least one");
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.workers = Executors.newFixedThreadPool(workerCount);
+    }
+
+    /**
+     * starts generating count puzzles with a rank in [rankStartValue, rankEndValue]
+     * @param timeoutMillis time limit for every single puzzle, a puzzle that takes longer is given up and counted as failed
+     * @return the batch, iterate over it (or its Stream()) to get the puzzles as they are done
+     */
+    public Batch Submit(int count, double rankStartValue, double rankEndValue, long timeoutMillis)
+    {
+        return Submit(count, rankStartValue, rankEndValue, timeoutMillis, GenerationStrategy.ANNEAL);
+    }
+
+    /* same as above, with the puzzles made the way strategy says */
+    public Batch Submit(int count, double rankStartValue, double rankEndValue, long timeoutMillis, GenerationStrategy strategy)
+    {
+        SudokuGenerator.CheckRange(strategy, GridGeometry.STANDARD, rankStartValue, rankEndValue);
+        int workerCount = Math.max(0, Math.min(this.workerCount, count));
+        Batch batch = new Batch(count, rankStartValue, rankEndValue, TimeUnit.MILLISECONDS.toNanos(timeoutMillis), strategy, workerCount);
+        this.open.add(batch);
+        try
+        {
+            for (int i = 0; i < workerCount; i++)
+                batch.futures.add(this.workers.submit(batch::Work));
+        }
+        catch (RejectedExecutionException e)
+        {
+            batch.Cancel();  // closed
+            throw e;
+        }
+        return batch;
+    }
+
+    /* stops every worker, the batches still open are cancelled, so their consumers stop waiting, workers that had not
+    *  started yet are dropped by the pool without ever telling their batch */
+    @Override
+    public void close()
+    {
+        this.workers.shutdownNow();
+        // after the shutdown, so that a batch submitted meanwhile is either in open or rejected
+        for (Batch batch : this.open)
+            batch.Cancel();
+    }
+
+    /* the puzzles of one Submit call, in the order they are finished */
+    class Batch implements Iterator<SudokuGrid>, AutoCloseable
+    {
+        private final double rankStartValue;  private final double rankEndValue;
+        private final long timeoutNanos;
+        private final GenerationStrategy strategy;
+        private final BlockingQueue<SudokuGrid> queue = new ArrayBlockingQueue<>(PuzzleBatchGenerator.this.queueCapacity);
+        // added to by Submit, cancelled by close, possibly on different threads
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        // puzzles not yet claimed by a worker
+        private final AtomicInteger unclaimed;
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger duplicates = new AtomicInteger();
+        // workers that have not ended yet, the last one to end puts END into the queue
+        private final AtomicInteger liveWorkers;
+        // the first exception a worker ended with, thrown to the consumer once the puzzles before it are delivered
+        private volatile RuntimeException failure;
+        // canonical hashes of the puzzles of this batch
+        private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+        // only touched by the consuming thread
+        private boolean ended;
+        private SudokuGrid next;
+
+        private Batch(int count, double rankStartValue, double rankEndValue, long timeoutNanos, GenerationStrategy strategy, int workerCount)
+        {
+            this.strategy = strategy;
+            this.rankStartValue = rankStartValue;  this.rankEndValue = rankEndValue;
+            this.timeoutNanos = timeoutNanos;
+            this.unclaimed = new AtomicInteger(count);
+            this.liveWorkers = new AtomicInteger(workerCount);
+            this.ended = workerCount == 0;
+        }
+
+        /* the loop of one worker, claims puzzles until there are none left or a worker failed, however it ends the
+        *  last worker to end tells the consumer so */
+        private void Work()
+        {
+            try
+            {
+                SudokuGenerator generator = new SudokuGenerator();
+                int countLimit = (int) Math.min(Math.floor(this.rankEndValue) + 1, Integer.MAX_VALUE);
+                while (!this.cancelled && this.failure == null && this.unclaimed.getAndDecrement() > 0)
+                {
+                    SudokuGrid puzzle = Generate(generator, countLimit);
+                    if (puzzle == null)
+                    {
+                        if (Thread.currentThread().isInterrupted())
+                            return;
+                        this.failed.incrementAndGet();
+                        continue;
+                    }
+                    this.queue.put(puzzle);  // blocks while the consumer is behind
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // cancelled
+            }
+            catch (RuntimeException e)
+            {
+                if (this.failure == null)
+                    this.failure = e;
+            }
+            finally
+            {
+                if (this.liveWorkers.decrementAndGet() == 0)
+                    End();
+            }
+        }
+
+        private void End()
+        {
+            try
+            {
+                this.queue.put(END);  // there is room for it once the consumer takes the puzzles before it
+            }
+            catch (InterruptedException e)
+            {
+                // cancelled, the consumer does not wait any more
+            }
+        }
+
+        /* a puzzle not equivalent to any other of the batch, null if it could not be made in time, the timeout is for
+        *  the puzzle, so the attempts after a duplicate only get the time left */
+        private SudokuGrid Generate(SudokuGenerator generator, int countLimit)
+        {
+            long startTime = System.nanoTime();
+            for (int attempt = 0; attempt <= MAX_DUPLICATE_RETRIES; attempt++)
+            {
+                long timeLeft = this.timeoutNanos - (System.nanoTime() - startTime);
+                if (timeLeft < 0)
+                    return null;
+                SudokuGrid puzzle = generator.Generate(this.strategy, this.rankStartValue, this.rankEndValue, timeLeft);
+                if (puzzle == null || !InRange(puzzle.GetRank(countLimit)))
+                    return null;
+                if (this.seen.add(puzzle.CanonicalHash()))
+                    return puzzle;
+                this.duplicates.incrementAndGet();
+            }
+            return null;
+        }
+
+        private boolean InRange(double rank)
+        {
+            return this.rankStartValue <= rank && rank <= this.rankEndValue;
+        }
+
+        /* blocks until the next puzzle is done, false once every puzzle has been delivered or given up
+        *  an exception a worker failed with is thrown here (wrapped in an IllegalStateException) after the puzzles
+        *  done before it */
+        @Override
+        public boolean hasNext()
+        {
+            while (this.next == null)
+            {
+                if (this.cancelled)
+                    return false;
+                if (this.ended)
+                {
+                    if (this.failure != null)
+                        throw new IllegalStateException(this.failure);
+                    return false;
+                }
+                try
+                {
+                    SudokuGrid puzzle = this.queue.take();
+                    if (puzzle == END)
+                    {
+                        this.ended = true;
+                        PuzzleBatchGenerator.this.open.remove(this);
+                    }
+                    else
+                        this.next = puzzle;
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    Cancel();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public SudokuGrid next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            SudokuGrid puzzle = this.next;
+            this.next = null;
+            return puzzle;
+        }
+
+        public Stream<SudokuGrid> Stream()
+        {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.NONNULL), false);
+        }
+
+        /* number of puzzles given up because they took longer than the timeout, or kept coming out as duplicates */
+        public int Failed()
+        {
+            return this.failed.get();
+        }
+
+        /* number of puzzles thrown away for being equivalent to one made before */
+        public int Duplicates()
+        {
+            return this.duplicates.get();
+        }
+
+        /* stops the workers of this batch, puzzles still running are abandoned, a consumer waiting in hasNext (on
+        *  another thread) is woken up and gets false */
+        public void Cancel()
+        {
+            this.cancelled = true;
+            PuzzleBatchGenerator.this.open.remove(this);
+            for (Future<?> future : this.futures)
+                future.cancel(true);
+            // a worker not stopped yet may fill the room again
+            do
+                this.queue.clear();
+            while (!this.queue.offer(END));
+        }
+
+        @Override
+        public void close()
+        {
+            Cancel();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/* bounded cache of solution counts keyed by the hash of a grid, normally the canonical one (GridSymmetry) so that
+*  equivalent grids share their entry, shared by threads
+*  a count below the limit it was counted with is exact, one that reached it only says there are at least as many,
+*  a lookup is a hit if the entry answers the count up to the limit asked for
+*  the entries are split over 64 stripes by the top bits of the hash, each an LRU map behind its own lock */
+class RankCache
+{
+    // what annealing runs use, about 1M grids
+    public static final RankCache SHARED = new RankCache(1 << 20);
+
+    private static final int STRIPE_BITS = 6;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RankCache(int capacity)
+    {
+        int stripeCapacity = Math.max(1, capacity >> STRIPE_BITS);
+        for (int i = 0; i < this.stripes.length; i++)
+            this.stripes[i] = new Stripe(stripeCapacity);
+    }
+
+    /* the number of solutions counted up to limit, -1 if it is not known */
+    public int Lookup(long hash, int limit)
+    {
+        Stripe stripe = StripeOf(hash);
+        Long entry;
+        synchronized (stripe)
+        {
+            entry = stripe.get(hash);
+        }
+        if (entry != null)
+        {
+            int count = (int) (entry >>> 1);
+            if ((entry & 1) != 0)  // exact
+            {
+                this.hits.increment();
+                return Math.min(count, limit);
+            }
+            if (count >= limit)
+            {
+                this.hits.increment();
+                return limit;
+            }
+        }
+        this.misses.increment();
+        return -1;
+    }
+
+    /* stores the number of solutions counted up to limit, an exact count is never replaced by a lower bound */
+    public void Put(long hash, int count, int limit)
+    {
+        boolean exact = count < limit;
+        long entry = (long) count << 1 | (exact ? 1 : 0);
+        Stripe stripe = StripeOf(hash);
+        synchronized (stripe)
+        {
+            Long old = stripe.get(hash);
+            if (old == null || (!exact && (old & 1) == 0 && old < entry) || (exact && (old & 1) == 0))
+                stripe.put(hash, entry);
+        }
+    }
+
+    public long Hits()
+    {
+        return this.hits.sum();
+    }
+
+    public long Misses()
+    {
+        return this.misses.sum();
+    }
+
+    public long Evictions()
+    {
+        return this.evictions.sum();
+    }
+
+    /* hits / lookups, 0 before the first lookup */
+    public double HitRate()
+    {
+        long hits = Hits();
+        long lookups = hits + Misses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public int Size()
+    {
+        int size = 0;
+        for (Stripe stripe : this.stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /* drops every entry, the metrics are kept */
+    public void Clear()
+    {
+        for (Stripe stripe : this.stripes)
+        {
+            synchronized (stripe)
+            {
+                stripe.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("RankCache[size=%d, hits=%d, misses=%d, evictions=%d, hit rate=%.3f]", Size(), Hits(), Misses(), Evictions(), HitRate());
+    }
+
+    private Stripe StripeOf(long hash)
+    {
+        return this.stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+    }
+
+    /* a map in access order that drops its least recently used entry once it is full */
+    private class Stripe extends LinkedHashMap<Long, Long>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Stripe(int capacity)
+        {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest)
+        {
+            if (size() <= this.capacity)
+                return false;
+            RankCache.this.evictions.increment();
+            return true;
+        }
+    }
+}
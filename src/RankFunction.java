@@ -0,0 +1,13 @@
+/* what SudokuGenerator anneals on, the higher the rank value the worse, Double.MAX_VALUE for a grid without solution
+*  the default is the number of solutions (NeighbourRanker, the same as SudokuGrid.GetRank), TechniqueGrader ranks by
+*  the hardest solving technique needed instead
+*  the parallel annealing calls one rank function from several threads at once, so a shared one has to allow that,
+*  except for a NeighbourRanker, of which every chain gets its own copy */
+interface RankFunction
+{
+    /* the rank of the grid as given, i.e. of its original grid */
+    double Rank(SudokuGrid sudokuGrid);
+
+    /* the annealing accepted the grid ranked last, for rank functions that work from the current grid */
+    default void Accept() {}
+}
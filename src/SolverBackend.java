@@ -0,0 +1,6 @@
+/* which GridSolver a SudokuGrid uses for Solve, SolveAll and NumberOfSolutions */
+enum SolverBackend
+{
+    BACKTRACKING,  // SudokuSolver, bitmask backtracking on a flat board
+    DANCING_LINKS  // DancingLinks, exact cover (Algorithm X), better on grids with few given fields
+}
@@ -0,0 +1,341 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/* aggregate metrics of every solver and annealing run of the process, shared by threads
+*  the solvers count into plain fields of their own while they search (they are used by one thread at a time) and add
+*  those to the striped counters here once per call, so the search itself never touches shared memory
+*  the phases nest: the rank of an annealing step may count solutions, and annealing runs rank, so their times overlap
+*  Snapshot gives a consistent enough copy for logging, Register makes GLOBAL visible over JMX */
+class SolverMetrics implements SolverMetricsMBean
+{
+    public static final SolverMetrics GLOBAL = new SolverMetrics();
+    public static final String OBJECT_NAME = "JavaSudoku:type=SolverMetrics";
+
+    enum Phase
+    {
+        SOLVE, COUNT, FILL, RANK, ANNEAL
+    }
+
+    // search nodes (cells branched on), guesses taken back, the most guesses on the board at once, guesses made
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder candidatesTested = new LongAdder();
+    // fields filled by propagation, propagation passes, and dead ends found by it
+    private final LongAdder inferred = new LongAdder();
+    private final LongAdder propagations = new LongAdder();
+    private final LongAdder contradictions = new LongAdder();
+    private final LongAdder solutions = new LongAdder();
+
+    private final LongAdder[] calls = new LongAdder[Phase.values().length];
+    private final LongAdder[] nanos = new LongAdder[Phase.values().length];
+
+    private final LongAdder annealSteps = new LongAdder();
+    private final LongAdder annealAccepted = new LongAdder();
+    // of the last sweep of any annealing run, polling them gives the trajectory
+    private volatile double temperature;
+    private volatile double rank;
+
+    public SolverMetrics()
+    {
+        for (int i = 0; i < this.calls.length; i++)
+        {
+            this.calls[i] = new LongAdder();  this.nanos[i] = new LongAdder();
+        }
+    }
+
+    /* registers GLOBAL with the platform MBean server under OBJECT_NAME, once, later calls do nothing */
+    public static void Register()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(GLOBAL, new ObjectName(OBJECT_NAME));
+        }
+        catch (InstanceAlreadyExistsException e)
+        {
+            // registered before
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /* one search call of a solver, what it counted during the call and how long it took */
+    public void RecordSearch(Phase phase, long nanos, long nodes, long backtracks, int maxDepth, long candidatesTested,
+                             long inferred, long propagations, long contradictions, long solutions)
+    {
+        Record(phase, nanos);
+        this.nodes.add(nodes);
+        this.backtracks.add(backtracks);
+        this.maxDepth.accumulate(maxDepth);
+        this.candidatesTested.add(candidatesTested);
+        this.inferred.add(inferred);
+        this.propagations.add(propagations);
+        this.contradictions.add(contradictions);
+        this.solutions.add(solutions);
+    }
+
+    /* a call of the phase that took nanos */
+    public void Record(Phase phase, long nanos)
+    {
+        this.calls[phase.ordinal()].increment();
+        this.nanos[phase.ordinal()].add(nanos);
+    }
+
+    public void RecordAnnealStep(boolean accepted)
+    {
+        this.annealSteps.increment();
+        if (accepted)
+            this.annealAccepted.increment();
+    }
+
+    /* the temperature and the rank of the current grid at the end of a sweep */
+    public void RecordAnnealSweep(double temperature, double rank)
+    {
+        this.temperature = temperature;
+        this.rank = rank;
+    }
+
+    public long Calls(Phase phase)
+    {
+        return this.calls[phase.ordinal()].sum();
+    }
+
+    public long Nanos(Phase phase)
+    {
+        return this.nanos[phase.ordinal()].sum();
+    }
+
+    public Snapshot Snapshot()
+    {
+        return new Snapshot(this);
+    }
+
+    @Override
+    public long getNodes()
+    {
+        return this.nodes.sum();
+    }
+
+    @Override
+    public long getBacktracks()
+    {
+        return this.backtracks.sum();
+    }
+
+    @Override
+    public long getMaxDepth()
+    {
+        return this.maxDepth.get();
+    }
+
+    @Override
+    public long getCandidatesTested()
+    {
+        return this.candidatesTested.sum();
+    }
+
+    @Override
+    public long getInferred()
+    {
+        return this.inferred.sum();
+    }
+
+    @Override
+    public long getPropagations()
+    {
+        return this.propagations.sum();
+    }
+
+    @Override
+    public long getContradictions()
+    {
+        return this.contradictions.sum();
+    }
+
+    @Override
+    public long getSolutions()
+    {
+        return this.solutions.sum();
+    }
+
+    @Override
+    public long getSolveCalls()
+    {
+        return Calls(Phase.SOLVE);
+    }
+
+    @Override
+    public long getSolveNanos()
+    {
+        return Nanos(Phase.SOLVE);
+    }
+
+    @Override
+    public long getCountCalls()
+    {
+        return Calls(Phase.COUNT);
+    }
+
+    @Override
+    public long getCountNanos()
+    {
+        return Nanos(Phase.COUNT);
+    }
+
+    @Override
+    public long getFillCalls()
+    {
+        return Calls(Phase.FILL);
+    }
+
+    @Override
+    public long getFillNanos()
+    {
+        return Nanos(Phase.FILL);
+    }
+
+    @Override
+    public long getRankCalls()
+    {
+        return Calls(Phase.RANK);
+    }
+
+    @Override
+    public long getRankNanos()
+    {
+        return Nanos(Phase.RANK);
+    }
+
+    @Override
+    public long getAnnealCalls()
+    {
+        return Calls(Phase.ANNEAL);
+    }
+
+    @Override
+    public long getAnnealNanos()
+    {
+        return Nanos(Phase.ANNEAL);
+    }
+
+    @Override
+    public long getAnnealSteps()
+    {
+        return this.annealSteps.sum();
+    }
+
+    @Override
+    public long getAnnealAccepted()
+    {
+        return this.annealAccepted.sum();
+    }
+
+    /* accepted / steps, 0 before the first step */
+    @Override
+    public double getAcceptanceRate()
+    {
+        long accepted = getAnnealAccepted();
+        long steps = getAnnealSteps();
+        return steps == 0 ? 0 : (double) accepted / steps;
+    }
+
+    @Override
+    public double getTemperature()
+    {
+        return this.temperature;
+    }
+
+    @Override
+    public double getRank()
+    {
+        return this.rank;
+    }
+
+    /* zeroes everything, counts added at the same time by other threads may be lost */
+    @Override
+    public void reset()
+    {
+        this.nodes.reset();  this.backtracks.reset();  this.maxDepth.reset();  this.candidatesTested.reset();
+        this.inferred.reset();  this.propagations.reset();  this.contradictions.reset();  this.solutions.reset();
+        for (int i = 0; i < this.calls.length; i++)
+        {
+            this.calls[i].reset();  this.nanos[i].reset();
+        }
+        this.annealSteps.reset();  this.annealAccepted.reset();
+        this.temperature = 0;  this.rank = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Snapshot().toString();
+    }
+
+    /* a copy of the metrics at one point in time, every value is read once, so they may be off from each other by
+    *  what other threads added while it was taken */
+    static final class Snapshot
+    {
+        public final long nodes;
+        public final long backtracks;
+        public final long maxDepth;
+        public final long candidatesTested;
+        public final long inferred;
+        public final long propagations;
+        public final long contradictions;
+        public final long solutions;
+        // per Phase, by ordinal
+        public final long[] calls;
+        public final long[] nanos;
+        public final long annealSteps;
+        public final long annealAccepted;
+        public final double temperature;
+        public final double rank;
+
+        private Snapshot(SolverMetrics metrics)
+        {
+            this.nodes = metrics.getNodes();
+            this.backtracks = metrics.getBacktracks();
+            this.maxDepth = metrics.getMaxDepth();
+            this.candidatesTested = metrics.getCandidatesTested();
+            this.inferred = metrics.getInferred();
+            this.propagations = metrics.getPropagations();
+            this.contradictions = metrics.getContradictions();
+            this.solutions = metrics.getSolutions();
+            this.calls = new long[Phase.values().length];
+            this.nanos = new long[Phase.values().length];
+            for (Phase phase : Phase.values())
+            {
+                this.calls[phase.ordinal()] = metrics.Calls(phase);
+                this.nanos[phase.ordinal()] = metrics.Nanos(phase);
+            }
+            this.annealSteps = metrics.getAnnealSteps();
+            this.annealAccepted = metrics.getAnnealAccepted();
+            this.temperature = metrics.getTemperature();
+            this.rank = metrics.getRank();
+        }
+
+        /* accepted / steps, 0 before the first step */
+        public double AcceptanceRate()
+        {
+            return this.annealSteps == 0 ? 0 : (double) this.annealAccepted / this.annealSteps;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder text = new StringBuilder(String.format(
+                    "SolverMetrics[nodes=%d, backtracks=%d, max depth=%d, candidates tested=%d, inferred=%d, propagations=%d, contradictions=%d, solutions=%d",
+                    this.nodes, this.backtracks, this.maxDepth, this.candidatesTested, this.inferred, this.propagations, this.contradictions, this.solutions));
+            for (Phase phase : Phase.values())
+                text.append(String.format(", %s %d calls %.1f ms", phase.name().toLowerCase(), this.calls[phase.ordinal()], this.nanos[phase.ordinal()] / 1e6));
+            text.append(String.format(", anneal steps=%d, acceptance rate=%.3f, temperature=%.6f, rank=%.4f]", this.annealSteps, AcceptanceRate(), this.temperature, this.rank));
+            return text.toString();
+        }
+    }
+}
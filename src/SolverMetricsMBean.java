@@ -0,0 +1,52 @@
+/* what SolverMetrics shows over JMX, the names follow the JMX getter convention so that jconsole and the like list
+*  them as attributes, times are in nanoseconds */
+public interface SolverMetricsMBean
+{
+    long getNodes();
+
+    long getBacktracks();
+
+    long getMaxDepth();
+
+    long getCandidatesTested();
+
+    long getInferred();
+
+    long getPropagations();
+
+    long getContradictions();
+
+    long getSolutions();
+
+    long getSolveCalls();
+
+    long getSolveNanos();
+
+    long getCountCalls();
+
+    long getCountNanos();
+
+    long getFillCalls();
+
+    long getFillNanos();
+
+    long getRankCalls();
+
+    long getRankNanos();
+
+    long getAnnealCalls();
+
+    long getAnnealNanos();
+
+    long getAnnealSteps();
+
+    long getAnnealAccepted();
+
+    double getAcceptanceRate();
+
+    double getTemperature();
+
+    double getRank();
+
+    void reset();
+}
@@ -0,0 +1,769 @@
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SudokuGenerator
+{
+    // the size of the grids it makes, 9x9 unless given another
+    private final GridGeometry geometry;
+    SudokuGrid game;
+    // used by the non-threaded annealing, every generator has its own so that runs can be seeded and run side by side
+    private final SplittableRandom random;
+    // fills the random full grids, every generator has its own as it is only ever used by one thread at a time
+    private final SudokuSolver solver;
+    private static final int SEED_POOL = 16;
+    private static final int FRESH_SEED_EVERY = 4;
+    private final int[][][] seeds = new int[SEED_POOL][][];
+    private long fullGridCount;
+    // what the annealing ranks grids with, null for the number of solutions (see RankFunction)
+    public RankFunction rankFunction;
+    // told about every step and sweep of the annealing
+    public AnnealListener annealListener = AnnealListener.NONE;
+    // how the annealing cools down, and when it stops early: after maxStalledSweeps sweeps in a row that found no
+    // better cost, or after maxEvaluations ranked grids, like at the end of the schedule the current grid is returned
+    public AnnealSchedule annealSchedule = AnnealSchedule.DEFAULT;
+    public int maxStalledSweeps = Integer.MAX_VALUE;
+    public long maxEvaluations = Long.MAX_VALUE;
+    // the move the last GetNeighbourSolution() made, cell -1 if it changed nothing
+    private int moveCell;
+    private int moveValue;
+    private boolean moveAdded;
+    
+    public SudokuGenerator()
+    {
+        this.geometry = GridGeometry.STANDARD;
+        this.solver = new SudokuSolver();
+        this.game = new SudokuGrid();
+        this.random = new SplittableRandom();
+    }
+    
+    public SudokuGenerator(long seed)
+    {
+        this(GridGeometry.STANDARD, seed);
+    }
+    
+    public SudokuGenerator(GridGeometry geometry, long seed)
+    {
+        this.geometry = geometry;
+        this.solver = new SudokuSolver(geometry);
+        this.game = geometry == GridGeometry.STANDARD ? new SudokuGrid() : new SudokuGrid(new int[geometry.size][geometry.size]);
+        this.random = new SplittableRandom(seed);
+    }
+    
+    /* acceptance is used in the annealing process, to decide whether a new solution is to be accepted or not */
+    public static double AcceptanceProbability(double oldCost, double newCost, double t)
+    {
+        if (oldCost > newCost)
+            return 1;
+        else
+            return Math.exp((oldCost - newCost) / t);
+    }
+    
+    /* the distance between a rank and the nearer end of the accepted rank range */
+    public static double Cost(double rank, double rankStartValue, double rankEndValue)
+    {
+        return Math.min(Math.abs(rankEndValue - rank), Math.abs(rankStartValue - rank));
+    }
+    
+    // these two are used in the threaded version, using passed in sudokuGrid instead of this.game
+    private void RandRmvField(SudokuGrid sudokuGrid)
+    {
+        RemoveRandomField(sudokuGrid, ThreadLocalRandom.current());
+    }
+    private void RandAddField(SudokuGrid sudokuGrid)
+    {
+        AddRandomField(sudokuGrid, ThreadLocalRandom.current());
+    }
+    
+    private int RandRmvField()
+    {
+        return RemoveRandomField(this.game, this.random);  // should never be without given fields whenever this is called
+    }
+    private int RandAddField()
+    {
+        return AddRandomField(this.game, this.random);
+    }
+    
+    /* empties a random given field, the grid must have one, returns its cell */
+    private static int RemoveRandomField(SudokuGrid sudokuGrid, RandomGenerator random)
+    {
+        CellSet canFillFields = sudokuGrid.canFillFields;
+        int cell = canFillFields.GetOther(random.nextInt(canFillFields.Capacity() - canFillFields.Size()));
+        sudokuGrid.FillInGrid(0, GridPosition.OfCell(cell, sudokuGrid.geometry.size));
+        return cell;
+    }
+    
+    /* fills a random one of the empty fields having a legal value with a random legal value, if there is such a field
+    *  a few random picks almost always find one, only otherwise are they counted to pick among them
+    *  returns the cell filled, -1 if there was none */
+    private static int AddRandomField(SudokuGrid sudokuGrid, RandomGenerator random)
+    {
+        CellSet canFillFields = sudokuGrid.canFillFields;
+        int size = sudokuGrid.geometry.size;
+        if (canFillFields.Size() == 0)
+            return -1;
+        int cell = -1;
+        for (int tries = 0; tries < 8 && cell == -1; tries++)
+        {
+            int pick = canFillFields.Get(random.nextInt(canFillFields.Size()));
+            if (sudokuGrid.masks.Candidates(pick / size, pick % size) != 0)
+                cell = pick;
+        }
+        if (cell == -1)
+        {
+            int fillable = 0;
+            for (int i = 0; i < canFillFields.Size(); i++)
+            {
+                int pick = canFillFields.Get(i);
+                if (sudokuGrid.masks.Candidates(pick / size, pick % size) != 0)
+                    fillable++;
+            }
+            if (fillable == 0)
+                return -1;
+            for (int i = 0, skip = random.nextInt(fillable); cell == -1; i++)
+            {
+                int pick = canFillFields.Get(i);
+                if (sudokuGrid.masks.Candidates(pick / size, pick % size) != 0 && skip-- == 0)
+                    cell = pick;
+            }
+        }
+        
+        int candidates = sudokuGrid.masks.Candidates(cell / size, cell % size);
+        for (int skip = random.nextInt(Integer.bitCount(candidates)); skip > 0; skip--)
+            candidates &= candidates - 1;  // drop the lowest value
+        sudokuGrid.FillInGrid(Integer.numberOfTrailingZeros(candidates) + 1, GridPosition.OfCell(cell, size));
+        return cell;
+    }
+    
+    /* returns a neighbour solution, construct a new SudokuGrid object and return */
+    public SudokuGrid GetNeighbourSolution()
+    {
+        int[][] currentSolution = this.game.CopyGrid(this.game.grid);
+        if (this.game.canFillFields.Size() == 0)
+            this.moveAdded = false;
+        else if (this.game.canFillFields.Size() == this.geometry.cells)
+            this.moveAdded = true;
+        else
+            this.moveAdded = this.random.nextBoolean();  // 1/2 probability to remove or add a field
+        this.moveCell = this.moveAdded ? RandAddField() : RandRmvField();
+        this.moveValue = this.moveCell == -1 ? 0 : this.moveAdded
+                ? this.game.grid[this.moveCell / this.geometry.size][this.moveCell % this.geometry.size]
+                : currentSolution[this.moveCell / this.geometry.size][this.moveCell % this.geometry.size];
+    
+        SudokuGrid newSolution = new SudokuGrid(this.game.grid);
+        // restore, leave no side effect on the current grid
+        this.game.SetGrid(currentSolution);
+
+        // in annealing process, use this new grid to find the new rank by calling its GetRank method
+        return newSolution;
+    }
+    
+    /* same as above, but used in threaded version */
+    public SudokuGrid GetNeighbourSolution(SudokuGrid solution0)
+    {
+        // using a copy should be thread safe
+        SudokuGrid solution = new SudokuGrid(solution0.grid);
+        
+        if (this.game.canFillFields.Size() == 0)
+            RandRmvField(solution);
+        else if (this.game.canFillFields.Size() == this.geometry.cells)
+            RandAddField();
+        else
+        {
+            if (ThreadLocalRandom.current().nextBoolean())  // 1/2 probability to remove or add a field
+                RandAddField(solution);
+            else
+                RandRmvField(solution);
+        }
+        return solution;
+    }
+    
+    /* gets a random fully filled grid for use in annealing */
+    private SudokuGrid GetFullySolvedGrid()
+    {
+        return new SudokuGrid(RandomFullGrid());
+    }
+    
+    /* a random solved grid, a random symmetry of a random seed grid, the seeds come from a randomized search on this
+    *  generator's solver and one of them is replaced by a new one every FRESH_SEED_EVERY grids, which makes a grid
+    *  about 4 times cheaper than a search while the seeds keep changing
+    *  GridSymmetry only transforms 9x9 grids, grids of other sizes all come from the search */
+    public int[][] RandomFullGrid()
+    {
+        if (this.geometry != GridGeometry.STANDARD)
+        {
+            int[][] grid = new int[this.geometry.size][this.geometry.size];
+            this.solver.FillRandom(this.random);
+            this.solver.CopyTo(grid);
+            return grid;
+        }
+        int slot = this.random.nextInt(SEED_POOL);
+        if (this.seeds[slot] == null || this.fullGridCount++ % FRESH_SEED_EVERY == 0)
+        {
+            this.solver.FillRandom(this.random);
+            if (this.seeds[slot] == null)
+                this.seeds[slot] = new int[9][9];
+            this.solver.CopyTo(this.seeds[slot]);
+        }
+        return GridSymmetry.RandomTransform(this.seeds[slot], this.random);
+    }
+    
+    /* throws an IllegalArgumentException if the strategy cannot make puzzles of the geometry with a rank in
+    *  [rankStartValue, rankEndValue], so a range is turned down before any work is done on it */
+    public static void CheckRange(GenerationStrategy strategy, GridGeometry geometry, double rankStartValue, double rankEndValue)
+    {
+        if (rankStartValue > rankEndValue)
+            throw new IllegalArgumentException("rank end value smaller than rank start value");
+        if (strategy == GenerationStrategy.ANNEAL)
+            return;
+        // a unique solution ranks 1 + givens / (cells + 1), so the range has to take some of [1, 2), a 9x9 puzzle has at
+        // least 17 givens
+        int fewestGivens = geometry == GridGeometry.STANDARD ? 17 : 0;
+        if (rankEndValue < 1 + fewestGivens / (geometry.cells + 1d) || rankStartValue >= 2)
+            throw new IllegalArgumentException("digging holes only makes puzzles with a single solution, rank between 1 and 2");
+    }
+    
+    /**
+     * makes a puzzle with a rank in [rankStartValue, rankEndValue] the way the strategy says
+     * @param timeoutNanos time limit, null is returned once it is over
+     */
+    public SudokuGrid Generate(GenerationStrategy strategy, double rankStartValue, double rankEndValue, long timeoutNanos)
+    {
+        if (strategy == GenerationStrategy.ANNEAL)
+            return Anneal(rankStartValue, rankEndValue, timeoutNanos);
+        
+        CheckRange(strategy, this.geometry, rankStartValue, rankEndValue);
+        int cells = this.geometry.cells;
+        int minGivens = (int) Math.max(0, Math.ceil((rankStartValue - 1) * (cells + 1)));
+        
+        long startTime = System.nanoTime();
+        while (System.nanoTime() - startTime <= timeoutNanos && !Thread.currentThread().isInterrupted())
+        {
+            SudokuGrid puzzle = DigHoles(strategy == GenerationStrategy.DIG_HOLES_SYMMETRIC, minGivens);
+            double rank = puzzle.GetRank(2);
+            if (rankStartValue <= rank && rank <= rankEndValue)
+                return puzzle;
+        }
+        return null;
+    }
+    
+    /**
+     * a puzzle with a single solution: starting from a random full grid the fields are emptied in random order, and a
+     * removal is only kept if the solution is still unique (counting up to 2 solutions), so the puzzle ends up minimal,
+     * i.e. emptying any other field would give more solutions, unless it hits minGivens first
+     * @param symmetric empty the fields in pairs opposite each other through the centre, the puzzle is then symmetric
+     * @param minGivens the puzzle never gets fewer given fields than this
+     */
+    public SudokuGrid DigHoles(boolean symmetric, int minGivens)
+    {
+        int size = this.geometry.size, last = this.geometry.cells - 1;
+        int[][] grid = RandomFullGrid();
+        byte[] cells = new byte[last + 1];
+        int[] order = new int[last + 1];
+        for (int cell = 0; cell <= last; cell++)
+        {
+            cells[cell] = (byte) grid[cell / size][cell % size];
+            order[cell] = cell;
+        }
+        for (int i = last; i > 0; i--)
+        {
+            int j = this.random.nextInt(i + 1);
+            int swap = order[i];  order[i] = order[j];  order[j] = swap;
+        }
+        
+        int givens = last + 1;
+        for (int cell : order)
+        {
+            int mirror = symmetric ? last - cell : cell;
+            if (mirror < cell)  // done together with its mirror
+                continue;
+            int removed = mirror == cell ? 1 : 2;
+            if (givens - removed < minGivens)
+                continue;
+            byte value = cells[cell], mirrorValue = cells[mirror];
+            cells[cell] = 0;  cells[mirror] = 0;
+            if (UniqueAfterRemoval(cells, cell, value, mirror))
+                givens -= removed;
+            else
+            {
+                cells[cell] = value;  cells[mirror] = mirrorValue;
+            }
+        }
+        
+        for (int cell = 0; cell <= last; cell++)
+            grid[cell / size][cell % size] = cells[cell];
+        return new SudokuGrid(grid);
+    }
+    
+    /* whether the puzzle, which had a single solution before value was taken out of cell (and its mirror), still has,
+    *  with a single field taken out the other solutions are exactly those with another value there, so it is enough
+    *  to find out there is none of those, which is cheaper than counting up to 2 */
+    private boolean UniqueAfterRemoval(byte[] cells, int cell, int value, int mirror)
+    {
+        this.solver.Load(cells, 0);
+        if (mirror != cell)
+            return this.solver.CountSolutions(2) == 1;
+        this.solver.Ban(cell, value);
+        return this.solver.CountSolutions(1) == 0;
+    }
+    
+    /**
+     * the annealing process will create a whole lot of randomness, it doesn't really matter if the grids we start off
+     * with are not that much random
+     * @param rankStartValue the start of the range (of rank) for which a solution is expected to be in
+     * @param rankEndValue the end of the range (of rank) for which a solution is expected to be in
+     */
+    public SudokuGrid Anneal(double rankStartValue, double rankEndValue)
+    {
+        return Anneal(rankStartValue, rankEndValue, Long.MAX_VALUE);
+    }
+    
+    /* same as above, but gives up and returns null once timeoutNanos have passed or the thread is interrupted */
+    public SudokuGrid Anneal(double rankStartValue, double rankEndValue, long timeoutNanos)
+    {
+        if (rankStartValue > rankEndValue)
+            throw new IllegalArgumentException("rank end value smaller than rank start value");
+        
+        long startTime = System.nanoTime();
+        try
+        {
+            return AnnealFrom(rankStartValue, rankEndValue, startTime, timeoutNanos);
+        }
+        finally
+        {
+            SolverMetrics.GLOBAL.Record(SolverMetrics.Phase.ANNEAL, System.nanoTime() - startTime);
+        }
+    }
+    
+    private SudokuGrid AnnealFrom(double rankStartValue, double rankEndValue, long startTime, long timeoutNanos)
+    {
+        this.game = GetFullySolvedGrid();
+        AnnealSchedule schedule = this.annealSchedule;
+        double rank = Double.MAX_VALUE;
+        double oldCost = Double.MAX_VALUE;
+        double bestCost = Double.MAX_VALUE;
+        double t = schedule.startTemperature;
+        // any count above rankEndValue is out of range anyway, so never count further than right above it
+        int countLimit = (int) Math.min(Math.floor(rankEndValue) + 1, Integer.MAX_VALUE);
+        // every neighbour is one clue away from this.game, so its rank is worked out from the solutions of this.game
+        RankFunction ranker = this.rankFunction != null ? this.rankFunction : new NeighbourRanker(this.geometry, countLimit, RankCache.SHARED);
+        ranker.Rank(this.game);
+        ranker.Accept();
+        long step = 0;
+        int stalled = 0;
+        int reheats = 0;
+        
+        while (t > schedule.minTemperature)
+        {
+            // one sweep at the same temperature t
+            int steps = 0, accepted = 0;
+            for (; steps < schedule.sweepLength && accepted < schedule.acceptedPerSweep; steps++)
+            {
+                if (System.nanoTime() - startTime > timeoutNanos || Thread.currentThread().isInterrupted())
+                    return null;
+                if (step >= this.maxEvaluations)
+                    return new SudokuGrid(this.game.CopyGrid(this.game.grid));
+                SudokuGrid newSolution = GetNeighbourSolution();
+                
+                double newRank = Rank(ranker, newSolution);
+                // compute the cost i,e, the difference between actual rank and accepting rank range
+                double newCost = Cost(newRank, rankStartValue, rankEndValue);
+                double acceptance = AcceptanceProbability(oldCost, newCost, t);
+                boolean accept = this.random.nextDouble() < acceptance;
+                ReportStep(step++, t, newRank, newCost, accept);
+                if (accept)
+                {
+                    this.game = newSolution;  // accept the new SudokuGrid
+                    ranker.Accept();
+                    rank = newRank;
+                    oldCost = newCost;
+                    accepted++;
+                }
+                if (rankStartValue <= rank && rank <= rankEndValue)
+                    return new SudokuGrid(this.game.CopyGrid(this.game.grid));
+            }
+            ReportSweep(t, rank);
+            if (oldCost < bestCost)
+            {
+                bestCost = oldCost;
+                stalled = 0;
+            }
+            else if (++stalled >= this.maxStalledSweeps)
+                break;  // no progress for too long
+            double next = schedule.Next(t, (double) accepted / steps, stalled, reheats);  // cool down the temperature
+            if (next > t)
+                reheats++;
+            t = next;
+        }
+        return new SudokuGrid(this.game.CopyGrid(this.game.grid));
+    }
+    
+    /* a step of the annealing made the move of the last GetNeighbourSolution(), to the metrics and the listener */
+    private void ReportStep(long step, double t, double rank, double cost, boolean accepted)
+    {
+        SolverMetrics.GLOBAL.RecordAnnealStep(accepted);
+        this.annealListener.Step(step, t, this.moveCell, this.moveValue, this.moveAdded, rank, cost, accepted);
+    }
+    
+    private void ReportSweep(double t, double rank)
+    {
+        SolverMetrics.GLOBAL.RecordAnnealSweep(t, rank);
+        this.annealListener.Sweep(t, rank);
+    }
+    
+    /* the rank of an annealing step, timed as SolverMetrics.Phase.RANK */
+    private static double Rank(RankFunction ranker, SudokuGrid sudokuGrid)
+    {
+        long start = System.nanoTime();
+        double rank = ranker.Rank(sudokuGrid);
+        SolverMetrics.GLOBAL.Record(SolverMetrics.Phase.RANK, System.nanoTime() - start);
+        return rank;
+    }
+    
+    /**
+     * parallel tempering: one annealing chain per temperature, every chain with its own SudokuGenerator (thus its own
+     * game and random), run on its own thread. After every sweep (as long as the schedule's) neighbouring chains may
+     * swap their games, so a good grid found by a hot chain can be refined by a cold one. The first chain to get into
+     * the range wins and the others stop at their next step. The temperatures span those of the schedule, there are
+     * as many rounds as it has sweeps, and the budgets of this generator are checked after every round
+     * @param chains the number of chains, i.e. threads, normally the number of cores
+     */
+    public SudokuGrid AnnealTempering(double rankStartValue, double rankEndValue, int chains)
+    {
+        if (rankStartValue > rankEndValue)
+            throw new IllegalArgumentException("rank end value smaller than rank start value");
+        if (chains < 1)
+            throw new IllegalArgumentException("need at least one chain");
+        
+        long startTime = System.nanoTime();
+        AnnealSchedule schedule = this.annealSchedule;
+        int countLimit = (int) Math.min(Math.floor(rankEndValue) + 1, Integer.MAX_VALUE);
+        AtomicReference<SudokuGrid> winner = new AtomicReference<>();
+        ArrayList<TemperingChain> chainList = new ArrayList<>(chains);
+        for (int i = 0; i < chains; i++)
+        {
+            // temperatures spread geometrically from the start down to the minimum, the coldest chain is at the end
+            double t = chains == 1 ? schedule.startTemperature
+                    : schedule.startTemperature * Math.pow(schedule.minTemperature / schedule.startTemperature, (double) i / (chains - 1));
+            SudokuGenerator generator = new SudokuGenerator(this.geometry, this.random.nextLong());
+            generator.rankFunction = this.rankFunction;
+            generator.annealListener = this.annealListener;
+            chainList.add(new TemperingChain(generator, t, schedule, rankStartValue, rankEndValue, countLimit, winner));
+        }
+        
+        ExecutorService threads = Executors.newFixedThreadPool(chains);
+        try
+        {
+            // as many sweeps as a single Anneal run has temperatures
+            double bestCost = Double.MAX_VALUE;
+            int stalled = 0;
+            for (int round = 0, rounds = schedule.Sweeps(); round < rounds && winner.get() == null; round++)
+            {
+                for (Future<Void> future : threads.invokeAll(chainList))
+                    future.get();
+                if (winner.get() != null)
+                    break;
+                
+                long evaluations = 0;
+                double cost = Double.MAX_VALUE;
+                for (TemperingChain chain : chainList)
+                {
+                    evaluations += chain.step;
+                    cost = Math.min(cost, chain.cost);
+                }
+                if (cost < bestCost)
+                {
+                    bestCost = cost;
+                    stalled = 0;
+                }
+                else if (++stalled >= this.maxStalledSweeps)
+                    break;
+                if (evaluations >= this.maxEvaluations)
+                    break;
+                
+                // replica exchange between neighbouring temperatures, alternating the pairs every round
+                for (int i = round % 2; i + 1 < chains; i += 2)
+                {
+                    TemperingChain hot = chainList.get(i), cold = chainList.get(i + 1);
+                    double exponent = (1 / cold.t - 1 / hot.t) * (cold.cost - hot.cost);
+                    if (exponent >= 0 || this.random.nextDouble() < Math.exp(exponent))
+                        hot.SwapState(cold);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+        finally
+        {
+            threads.shutdownNow();
+            SolverMetrics.GLOBAL.Record(SolverMetrics.Phase.ANNEAL, System.nanoTime() - startTime);
+        }
+        
+        if (winner.get() != null)
+            return winner.get();
+        // nothing got into the range, return the best one there is
+        TemperingChain best = chainList.get(0);
+        for (TemperingChain chain : chainList)
+        {
+            if (chain.cost < best.cost)
+                best = chain;
+        }
+        return new SudokuGrid(best.generator.game.CopyGrid(best.generator.game.grid));
+    }
+    
+    /* one chain of AnnealTempering, a sweep of annealing at a fixed temperature per call */
+    private static class TemperingChain implements Callable<Void>
+    {
+        final SudokuGenerator generator;  final double t;  final AnnealSchedule schedule;
+        final double rankStartValue;  final double rankEndValue;  final int countLimit;
+        final AtomicReference<SudokuGrid> winner;
+        // after a swap the game is no longer one clue away from what the ranker has, it then counts from scratch once
+        final RankFunction ranker;
+        double rank = Double.MAX_VALUE;  double cost = Double.MAX_VALUE;
+        long step;
+        
+        public TemperingChain(SudokuGenerator generator, double t, AnnealSchedule schedule, double rankStartValue, double rankEndValue, int countLimit, AtomicReference<SudokuGrid> winner)
+        {
+            this.generator = generator;  this.t = t;  this.schedule = schedule;
+            this.rankStartValue = rankStartValue;  this.rankEndValue = rankEndValue;  this.countLimit = countLimit;
+            this.winner = winner;
+            this.generator.game = this.generator.GetFullySolvedGrid();
+            if (generator.rankFunction instanceof NeighbourRanker)  // it keeps the state of one run
+                this.ranker = new NeighbourRanker((NeighbourRanker) generator.rankFunction);
+            else
+                this.ranker = generator.rankFunction != null ? generator.rankFunction : new NeighbourRanker(generator.geometry, countLimit, RankCache.SHARED);
+        }
+        
+        @Override
+        public Void call()
+        {
+            for (int steps = 0, accepted = 0; steps < this.schedule.sweepLength && accepted < this.schedule.acceptedPerSweep; steps++)
+            {
+                if (this.winner.get() != null)  // another chain is done, stop
+                    return null;
+                
+                SudokuGrid newSolution = this.generator.GetNeighbourSolution();
+                double newRank = Rank(this.ranker, newSolution);
+                double newCost = Cost(newRank, this.rankStartValue, this.rankEndValue);
+                boolean accept = this.generator.random.nextDouble() < AcceptanceProbability(this.cost, newCost, this.t);
+                this.generator.ReportStep(this.step++, this.t, newRank, newCost, accept);
+                if (accept)
+                {
+                    this.generator.game = newSolution;
+                    this.ranker.Accept();
+                    this.rank = newRank;
+                    this.cost = newCost;
+                    accepted++;
+                }
+                if (this.rankStartValue <= this.rank && this.rank <= this.rankEndValue)
+                {
+                    this.winner.compareAndSet(null, new SudokuGrid(this.generator.game.CopyGrid(this.generator.game.grid)));
+                    return null;
+                }
+            }
+            this.generator.ReportSweep(this.t, this.rank);
+            return null;
+        }
+        
+        /* replica exchange, the temperatures stay, the games move */
+        void SwapState(TemperingChain other)
+        {
+            SudokuGrid game = this.generator.game;  double rank = this.rank;  double cost = this.cost;
+            this.generator.game = other.generator.game;  this.rank = other.rank;  this.cost = other.cost;
+            other.generator.game = game;  other.rank = rank;  other.cost = cost;
+        }
+    }
+    
+    public SudokuGrid AnnealThreaded(double rankStartValue, double rankEndValue)
+    {
+        if (rankStartValue > rankEndValue)
+            throw new IllegalArgumentException("rank end value smaller than rank start value");
+        
+        this.game = GetFullySolvedGrid();
+        double rank = Double.MAX_VALUE;
+        double oldCost = Double.MAX_VALUE;
+        double t = 1d;
+        double t_min = 0.00001;
+        double alpha = 0.9;
+        long step = 0;
+    
+        while (t > t_min)
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                SudokuGrid newSolution = GetNeighbourSolution();
+        
+                long rankStart = System.nanoTime();
+                double newRank = newSolution.GetRankThreaded(RankCache.SHARED);
+                SolverMetrics.GLOBAL.Record(SolverMetrics.Phase.RANK, System.nanoTime() - rankStart);
+    
+                double newCost = Math.min(Math.abs(rankEndValue - newRank), Math.abs(rankStartValue - newRank));
+                double acceptance = AcceptanceProbability(oldCost, newCost, t);
+                boolean accepted = ThreadLocalRandom.current().nextDouble() < acceptance;
+                ReportStep(step++, t, newRank, newCost, accepted);
+                if (accepted)
+                {
+                    this.game = newSolution;  // accept the new SudokuGrid
+                    rank = newRank;
+                    oldCost = Math.min(Math.abs(rankEndValue - rank), Math.abs(rankStartValue - rank));
+                }
+                if (rankStartValue <= rank && rank <= rankEndValue) //
+                    return new SudokuGrid(this.game.CopyGrid(this.game.grid));
+            }
+            ReportSweep(t, rank);
+            t = alpha * t;  // cool down the temperature
+            if (rankStartValue <= rank && rank <= rankEndValue)
+                break;  // desired solution found! stop annealing
+        }
+        return new SudokuGrid(this.game.CopyGrid(this.game.grid));
+    }
+    
+    
+    // THE WRONG WAY OF DOING ANNEALING, THE ANNEALING PROCESS SHOULD NOT PARALLELIZE
+    public SudokuGrid WrongAnnealThreaded(double rankStartValue, double rankEndValue)
+    {
+        // TODO implement multithreaded Anneal method
+        var threads = Executors.newFixedThreadPool(10);
+
+        this.game = GetFullySolvedGrid();
+        double rank = Double.MAX_VALUE;
+        double t = 1d;
+        double t_min = 0.00001;
+        double alpha = 0.9;
+
+        while (t > t_min)
+        {
+            // 100 times annealing
+
+            // create 100 jobs to get 100 neighbour solutions
+            var jobs = new ArrayList<AnnealJob>(100);
+            for (int i = 0; i < 100; i++)
+            {
+                // TODO submit a job, and handle its result
+                jobs.add(new AnnealJob(this.game));
+            }
+
+            // process the results, after calling invokeAll()
+            ArrayList<SudokuGrid> newSolutions = new ArrayList<>(100);
+            ArrayList<Double> ranks = new ArrayList<>(100);
+
+            try
+            {
+                List<Future<Object[]>> futures = threads.invokeAll(jobs);  // this blocks until all jobs are done
+
+                for (Future<Object[]> future : futures)
+                {
+                    Object[] result = future.get();
+                    newSolutions.add((SudokuGrid) result[0]);
+                    ranks.add((double) result[1]);
+                }
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+
+            SudokuGrid solution = new SudokuGrid(this.game.grid);
+            for (int i = 0; i < 100; i++)
+            {
+                double newRank = ranks.get(i);
+                double acceptance = AcceptanceProbability(rank, newRank, t);
+                if (ThreadLocalRandom.current().nextDouble() < acceptance)
+                {
+                    solution = newSolutions.get(i);
+                    rank = newRank;
+                }
+                if (rankStartValue <= rank && rank <= rankEndValue)
+                    return new SudokuGrid(solution.grid);
+            }
+            // if (solution != null)  // ensure not null
+            this.game = solution;
+            //System.out.println(solution);
+
+            ReportSweep(t, rank);
+            t = alpha * t;  // cool down the temperature
+            if (rankStartValue <= rank && rank <= rankEndValue)
+                break;  // desired solution found! stop annealing
+        }
+        return new SudokuGrid(this.game.grid);
+    }
+    
+    /* this job runs the 100 time annealing loop, Object[0] = SudokuGrid Object[1] = (Double) rank
+    * this is used in WrongAnnealThreaded method */
+    class AnnealJob implements Callable<Object[]>
+    {
+        SudokuGrid gameGrid;
+        public AnnealJob(SudokuGrid sudokuGrid)
+        {
+            // TODO implement initializer
+            this.gameGrid = new SudokuGrid(sudokuGrid.grid);
+        }
+    
+        @Override
+        public Object[] call()
+        {
+            // TODO
+            SudokuGrid neighbourSolution = GetNeighbourSolution(this.gameGrid);
+            Double rank = neighbourSolution.GetRank(Integer.MAX_VALUE, RankCache.SHARED);
+            return new Object[]{neighbourSolution, rank};
+        }
+    }
+    
+    /* The overhead of syncing when using multiple threads is always very significant, and from observation,
+    * non threaded version has always been faster than the threaded version */
+    public static void main1(String[] args)
+    {
+        SudokuGrid sudoku = new SudokuGenerator().Anneal(40+20/82d, 76+40/82d);
+        System.out.println("Got this:");
+        System.out.println(sudoku);
+        System.out.println("non threaded time:");
+        long start = System.currentTimeMillis();
+        System.out.println(sudoku.GetRank() + "  " + (System.currentTimeMillis() - start)+" ms");
+        boolean solved = sudoku.Solve();
+        System.out.println("solved: " + solved);
+        
+        System.out.println("threaded version time:");
+        start = System.currentTimeMillis();
+        System.out.println(sudoku.GetRankThreaded() + "  " + (System.currentTimeMillis() - start)+" ms");
+        System.out.println(sudoku);
+    }
+    
+    /* Test AnnealThreaded() method */
+    public static void main2(String[] args)
+    {
+        SudokuGrid sudoku = new SudokuGenerator().AnnealThreaded(1+20/82d, 1+23/82d);
+        System.out.println("Got this:");
+        System.out.println(sudoku);
+        System.out.println("After Solving:");
+        System.out.println(sudoku.NumberOfSolutions());
+        boolean solved = sudoku.Solve();
+        System.out.println("solved: " + solved);
+        System.out.println(sudoku);
+    }
+    
+    public static void main3(String[] args) throws IOException, URISyntaxException
+    {
+        SudokuGrid sudokuGrid = new SudokuGrid("check.txt");
+        //System.out.println(sudokuGrid.NumberOfSolutions() + "  " + sudokuGrid.NumberOfSolutionsThreaded());
+        
+        var start2 = System.currentTimeMillis();
+        System.out.println(sudokuGrid.GetRank());
+        System.out.println("non threaded version " + (System.currentTimeMillis() - start2));
+    
+        var start1 = System.currentTimeMillis();
+        System.out.println(sudokuGrid.GetRankThreaded());
+        System.out.println("threaded time: " + (System.currentTimeMillis() - start1));
+    }
+    
+}
\ No newline at end of file
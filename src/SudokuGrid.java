@@ -0,0 +1,391 @@
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/* the grid is NOT 0 based, the index for GridPosition is from 1 to 9 (to the size of the grid, see GridGeometry) */
+class SudokuGrid
+{
+    @Override
+    // pretty prints the sudoku game grid
+    public String toString()
+    {
+        /* pretty prints the sudoku grid */
+        
+        LinkedList<String> rows = new LinkedList<>();
+        for (int[] row: this.grid)
+        {
+            String prettyRow = "";
+            for (int field: row)
+            {
+                prettyRow += " | " + field;
+            }
+            rows.add("-".repeat(prettyRow.length()+2));
+            rows.add(prettyRow + " |");
+        }
+        rows.add(rows.get(0));
+        
+        String finalStr = "";
+        for (String row: rows)
+        {
+            finalStr += row + "\n";
+        }
+        return finalStr;
+    }
+    
+    /* returns a deep copied grid */
+    public int[][] CopyGrid(int[][] grid)
+    {
+        int[][] copiedGrid = new int[grid.length][];
+        for (int i = 0; i < grid.length; i++)
+        {
+            copiedGrid[i] = grid[i].clone();
+        }
+        return copiedGrid;
+    }
+    
+    // call this in constructor
+    private void InitCanFillFields()
+    {
+        LoadCanFillFields();
+        this.initialCanFillFields = new CellSet(this.canFillFields);
+    }
+    
+    /* rebuilds canFillFields from the grid */
+    private void LoadCanFillFields()
+    {
+        this.canFillFields.Clear();
+        int size = this.geometry.size;
+        for (int i = 0, cell = 0; i < size; i++)
+        {
+            for (int j = 0; j < size; j++, cell++)
+            {
+                if (this.grid[i][j] == 0)
+                    this.canFillFields.Add(cell);
+            }
+        }
+    }
+    
+    public int[] GetRow(int index)
+    {
+        return this.grid[index-1];
+    }
+    
+    public int[] GetColumn(int index)
+    {
+        int[] column = new int[this.geometry.size];
+        for (int i = 0; i < this.geometry.size; i++)
+        {
+            column[i] = this.grid[i][index-1];
+        }
+        return column;
+    }
+    
+    /* returns null if no next position available */
+    public GridPosition GetNextPosition(GridPosition current)
+    {
+        assert current != null;  // this should never be null anyways
+        int size = this.geometry.size;
+        GridPosition nextPosition = current.column < size ? new GridPosition(current.row, current.column+1) : (current.row == size ? null : new GridPosition(current.row+1, 1));
+        
+        if (nextPosition == null)
+            return null;
+        if (GetFieldValue(nextPosition) == 0)
+            return nextPosition;
+        return GetNextPosition(nextPosition);
+    }
+    
+    /* will also modifies the field canFillFields and the candidate masks */
+    public void FillInGrid(int val, GridPosition position)
+    {
+        int oldVal = this.grid[position.row-1][position.column-1];
+        if (oldVal != 0)
+            this.masks.Remove(position.row-1, position.column-1, oldVal);
+        if (val != 0)
+            this.masks.Place(position.row-1, position.column-1, val);
+        
+        this.grid[position.row-1][position.column-1] = val;
+        int field = (position.row-1) * this.geometry.size + position.column-1;
+        if (val == 0)
+            this.canFillFields.Add(field);
+        else
+            this.canFillFields.Remove(field);
+    }
+    
+    /* replaces the whole grid, canFillFields and the candidate masks are rebuilt to match it */
+    public void SetGrid(int[][] grid)
+    {
+        this.grid = grid;
+        this.masks.Load(grid);
+        LoadCanFillFields();
+    }
+    
+    /* Zobrist hash of a grid of any size, the xor of the keys of its given fields */
+    public static long Hash(int[][] grid)
+    {
+        return GridGeometry.Of(grid).Hash(grid);
+    }
+    
+    /* same as above, of a 9x9 grid from 81 values in row-major order */
+    public static long Hash(int[] cells)
+    {
+        long[][] zobrist = GridGeometry.STANDARD.zobrist;
+        long hash = 0;
+        for (int cell = 0; cell < 81; cell++)
+            hash ^= zobrist[cell][cells[cell]];
+        return hash;
+    }
+    
+    public int GetFieldValue(GridPosition position)
+    {
+        return this.grid[position.row-1][position.column-1];
+    }
+    
+    // check if a given field with the given value is legal
+    public boolean ValidateField(GridPosition position, int value)
+    {
+        return this.masks.IsCandidate(position.row-1, position.column-1, value);
+    }
+    
+    /* whether the whole grid is legal, i.e. no value is twice in a row, column or box, empty fields are fine */
+    public boolean ValidateGrid()
+    {
+        return GridValidator.IsValid(this.grid, false);
+    }
+    
+    
+    // the size of the grid and its tables
+    public final GridGeometry geometry;
+    // the grid representing the sudoku game itself
+    public int[][] grid;
+    // all solved grids, i.e. different solutions
+    public LinkedList<int[][]> listOfSolutions = new LinkedList<>();
+    // the empty fields of grid and of originalGrid, as cell indices (see CellSet)
+    public final CellSet canFillFields;
+    public CellSet initialCanFillFields;
+    // used values of every row, column and box, kept in sync with grid by FillInGrid and SetGrid
+    public final CandidateMasks masks;
+    
+    public final int[][] originalGrid;  // the original game grid, never modified
+    
+    // Zobrist hash of originalGrid, the rank cache key of grids other than 9x9 (see CanonicalHash)
+    public final long originalHash;
+    
+    // how the fields of the last successful Solve were filled, by inference (singles) or by guessing
+    public int solvedByLogic;
+    public int solvedBySearch;
+    
+    // which solver does the actual work for Solve, SolveAll and NumberOfSolutions
+    public SolverBackend backend = SolverBackend.BACKTRACKING;
+    
+    // the solvers hold the search state, so there is one of each per thread, and of SudokuSolver one per box size
+    private static final ThreadLocal<SudokuSolver[]> SOLVERS = ThreadLocal.withInitial(() -> new SudokuSolver[GridGeometry.MAX_BOX_SIZE + 1]);
+    private static final ThreadLocal<DancingLinks> DANCING_LINKS = ThreadLocal.withInitial(DancingLinks::new);
+    
+    /* Dancing Links only handles 9x9 grids */
+    private GridSolver Solver()
+    {
+        if (this.backend == SolverBackend.DANCING_LINKS)
+        {
+            if (this.geometry != GridGeometry.STANDARD)
+                throw new IllegalArgumentException("Dancing Links cannot solve " + this.geometry + " grids");
+            return DANCING_LINKS.get();
+        }
+        SudokuSolver[] solvers = SOLVERS.get();
+        int boxSize = this.geometry.boxSize;
+        if (solvers[boxSize] == null)
+            solvers[boxSize] = new SudokuSolver(this.geometry);
+        return solvers[boxSize];
+    }
+
+    // given a grid 2d-array, create the SudokuGrid object for it, 4x4, 9x9, 16x16 or 25x25
+    public SudokuGrid(int[][] grid)
+    {
+        this.geometry = GridGeometry.Of(grid);
+        this.canFillFields = new CellSet(this.geometry.cells);
+        this.masks = new CandidateMasks(this.geometry);
+        this.grid = CopyGrid(grid);
+        this.originalGrid = CopyGrid(grid);
+        this.masks.Load(this.grid);
+        this.originalHash = this.geometry.Hash(this.grid);
+        
+        InitCanFillFields();
+    }
+    
+    // load from file
+    public SudokuGrid(String fileName) throws IOException, URISyntaxException
+    {
+        var path1 = Sudoku.class.getClassLoader().getResource(fileName);
+        var path = Path.of(path1.toURI());
+        System.out.println(path);
+        assert (Files.exists(path));
+        // TODO throw assertion error
+
+        // one line per row, as many lines as the grid has rows
+        List<String> lines = Files.readAllLines(path);
+        int size = lines.size();
+        this.grid = new int[size][size];
+        for (int i = 0; i < size; i++)
+        {
+            String line = lines.get(i);
+            line = line.trim();
+            String[] nums = line.split(" ");
+            assert (nums.length == size);
+            for (int j = 0; j < size; j++)
+            {
+                this.grid[i][j] = Integer.parseInt(nums[j]);
+            }
+        }
+        
+        this.geometry = GridGeometry.Of(this.grid);
+        this.canFillFields = new CellSet(this.geometry.cells);
+        this.masks = new CandidateMasks(this.geometry);
+        this.originalGrid = CopyGrid(this.grid);
+        this.masks.Load(this.grid);
+        this.originalHash = this.geometry.Hash(this.grid);
+        
+        InitCanFillFields();
+    }
+    
+    // just a relatively hard one to solve
+    public SudokuGrid()
+    {
+        // TODO dispose this constructor, should never use this one
+        // for now, just use this
+        this.grid = new int[][]{{0, 0, 0, 0, 0, 0, 0, 0, 0}, {0, 0, 0, 0, 0, 0, 0, 0, 0}, {2, 0, 3, 0, 0, 0, 0, 0, 0}, {0, 0, 0, 5, 0, 0, 0, 0, 7}, {0, 0, 0, 0, 0, 0, 5, 3, 0}, {0, 0, 0, 0, 0, 0, 9, 4, 0}, {0, 0, 0, 0, 6, 0, 0, 2, 0}, {0, 0, 0, 0, 0, 0, 0, 0, 0}, {9, 7, 0, 2, 0, 0, 6, 0, 0}};
+        
+        this.geometry = GridGeometry.STANDARD;
+        this.canFillFields = new CellSet(this.geometry.cells);
+        this.masks = new CandidateMasks(this.geometry);
+        this.originalGrid = CopyGrid(this.grid);
+        this.masks.Load(this.grid);
+        this.originalHash = this.geometry.Hash(this.grid);
+        InitCanFillFields();
+    }
+    
+    /* returns whether the grid could be solved, the solution is filled into this.grid */
+    public boolean Solve()
+    {
+        // side effect will cause this.grid to be filled
+        GridSolver solver = Solver();
+        if (!solver.Load(this.grid) || !solver.Solve())
+            return false;
+        solver.CopyTo(this.grid);
+        SetGrid(this.grid);  // canFillFields and the masks follow the solution
+        this.solvedByLogic = solver.SolvedByLogic();
+        this.solvedBySearch = solver.SolvedBySearch();
+        return true;
+    }
+    
+    
+    /* will add every solved grid to the LinkedList listOfSolutions, prints the number of solutions found */
+    public void SolveAll()
+    {
+        GridSolver solver = Solver();
+        // a grid without any empty field has always been reported as having no solution
+        if (solver.Load(this.grid) && solver.EmptyCount() > 0)
+            solver.CollectSolutions(this.listOfSolutions);
+        int numOfSolutions = this.listOfSolutions.size();
+        System.out.println(String.format("Solved, there are %d solutions", numOfSolutions));
+    }
+    // TODO maybe implement this
+    public void SolveAllThreaded(){}
+    
+    /* computes number of solutions there are by solving all from scratch */
+    public int NumberOfSolutions()
+    {
+        return CountSolutions(Integer.MAX_VALUE);
+    }
+    
+    /* same as above, but stops counting once limit solutions are found, no solution is ever copied */
+    public int CountSolutions(int limit)
+    {
+        GridSolver solver = Solver();
+        // a grid without any empty field has always been reported as having no solution
+        if (!solver.Load(this.originalGrid) || solver.EmptyCount() == 0)
+            return 0;
+        return (int) solver.CountSolutions(limit);
+    }
+    /* same as NumberOfSolutions, but the search tree is split across the threads of the common ForkJoinPool */
+    public int NumberOfSolutionsThreaded()
+    {
+        // the subtasks copy the solver, so it has to be a fresh one rather than this thread's
+        SudokuSolver solver = new SudokuSolver(this.geometry);
+        if (!solver.Load(this.originalGrid) || solver.EmptyCount() == 0)
+            return 0;
+        return (int) (long) ForkJoinPool.commonPool().invoke(new ParallelSolutionCounter(solver, Integer.MAX_VALUE));
+    }
+    
+    /* the higher the rank value the worse it is, no solution is the worst */
+    public double GetRank()
+    {
+        return RankOf(NumberOfSolutions());
+    }
+    /* rank with the number of solutions counted up to limit, any grid with more solutions ranks as if it had limit */
+    public double GetRank(int limit)
+    {
+        return RankOf(CountSolutions(limit));
+    }
+    public double GetRankThreaded()
+    {
+        return RankOf(NumberOfSolutionsThreaded());
+    }
+    /* same as GetRank(limit), the count is looked up in the cache first and stored there if it had to be counted,
+    *  the key is the canonical hash, so a count of any equivalent grid answers it */
+    public double GetRank(int limit, RankCache cache)
+    {
+        long key = CanonicalHash();
+        int numOfSolutions = cache.Lookup(key, limit);
+        if (numOfSolutions == -1)
+        {
+            numOfSolutions = CountSolutions(limit);
+            cache.Put(key, numOfSolutions, limit);
+        }
+        return RankOf(numOfSolutions);
+    }
+    public double GetRankThreaded(RankCache cache)
+    {
+        long key = CanonicalHash();
+        int numOfSolutions = cache.Lookup(key, Integer.MAX_VALUE);
+        if (numOfSolutions == -1)
+        {
+            numOfSolutions = NumberOfSolutionsThreaded();
+            cache.Put(key, numOfSolutions, Integer.MAX_VALUE);
+        }
+        return RankOf(numOfSolutions);
+    }
+    
+    /* hash of the canonical form of the original grid (see GridSymmetry), the same for all grids equivalent to it,
+    *  GridSymmetry only handles 9x9 grids, those of other sizes are taken as they are */
+    public long CanonicalHash()
+    {
+        if (this.geometry != GridGeometry.STANDARD)
+            return this.originalHash;
+        return GridSymmetry.CanonicalHash(this.originalGrid);
+    }
+    
+    private double RankOf(int numOfSolutions)
+    {
+        return RankOf(numOfSolutions, this.geometry.cells - this.initialCanFillFields.Size(), this.geometry.cells);
+    }
+    
+    /* the rank of a 9x9 grid with the given number of solutions and given fields */
+    static double RankOf(int numOfSolutions, int givenFields)
+    {
+        return RankOf(numOfSolutions, givenFields, 81);
+    }
+    
+    /* same as above, for a grid of any size with cells fields */
+    static double RankOf(int numOfSolutions, int givenFields, int cells)
+    {
+        if (numOfSolutions == 0)
+            return Double.MAX_VALUE;  // worst rank
+        
+        // divide by cells + 1 (82 for 9x9) because it should be always less than 1, so as not to interfere with numOfSolutions
+        return (numOfSolutions + givenFields / (cells + 1d));
+    }
+    
+}
@@ -0,0 +1,614 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/* the solver core behind SudokuGrid, works on a flat board of cells (index = row * size + column, 0 based) with the
+*  unit and peer tables of its GridGeometry, 9x9 unless given another, nothing is allocated once it has been created
+*  before the search and after every guess, naked and hidden singles are filled in by Propagate */
+class SudokuSolver implements GridSolver
+{
+    public static final int ALL = 0x1FF;  // all of 1 to 9
+
+    // the tables of 9x9 grids, for the code that only ever handles those (see GridGeometry for the others)
+    // row, column and box of every cell
+    public static final int[] ROW_OF = GridGeometry.STANDARD.rowOf;
+    public static final int[] COLUMN_OF = GridGeometry.STANDARD.columnOf;
+    public static final int[] BOX_OF = GridGeometry.STANDARD.boxOf;
+    // the cells of the 9 rows, then the 9 columns, then the 9 boxes
+    public static final int[][] UNITS = GridGeometry.STANDARD.units;
+    // the 20 other cells sharing a row, column or box with every cell
+    public static final int[][] PEERS = GridGeometry.STANDARD.peers;
+
+    // the geometry and its tables, copied into fields as the search reads them all the time
+    private final GridGeometry geometry;
+    private final int size;
+    private final int cells;
+    private final int all;
+    private final int[] rowOf;
+    private final int[] columnOf;
+    private final int[] boxOf;
+    private final int[][] units;
+    private final int[][] peers;
+
+    private final byte[] board;
+    private final int[] rowMasks;
+    private final int[] columnMasks;
+    private final int[] boxMasks;
+    // empty cells of the loaded grid, and empty cells right now
+    private int loadedEmptyCount;
+    private int emptyCount;
+    // number of candidates of every empty cell, kept up to date on every place and undo through the peer table
+    private final int[] candidateCounts;
+    // values ruled out of a cell on top of the rules, see Ban
+    private final int[] bans;
+
+    // every cell filled since loading, in order, so the search can take them back, GUESS marks the ones not inferred
+    private static final int GUESS = 0x400;  // above the largest cell
+    private static final int FILL_BUDGET = 20;
+    private final int[] trail;
+    private int trailSize;
+    private int logicCount;
+    private int guessCount;
+
+    // state of the current count, kept in fields so the recursion passes nothing
+    private long count;
+    // values FillRandom may still place before it starts over
+    private long fillBudget;
+    private long limit;
+    private List<int[][]> solutions;
+    private byte[] solutionCells;
+    private int solutionOffset;
+    private int solutionCapacity;
+
+    // what the last Solve, CountSolutions or FillRandom did, plain fields as a solver is used by one thread at a time,
+    // they are added to SolverMetrics.GLOBAL when the call returns
+    private long nodes;
+    private long backtracks;
+    private int maxDepth;
+    private long candidatesTested;
+    private long inferred;
+    private long propagations;
+    private long contradictions;
+
+    public SudokuSolver()
+    {
+        this(GridGeometry.STANDARD);
+    }
+
+    public SudokuSolver(GridGeometry geometry)
+    {
+        this.geometry = geometry;
+        this.size = geometry.size;  this.cells = geometry.cells;  this.all = geometry.all;
+        this.rowOf = geometry.rowOf;  this.columnOf = geometry.columnOf;  this.boxOf = geometry.boxOf;
+        this.units = geometry.units;  this.peers = geometry.peers;
+        this.board = new byte[this.cells];
+        this.rowMasks = new int[this.size];
+        this.columnMasks = new int[this.size];
+        this.boxMasks = new int[this.size];
+        this.candidateCounts = new int[this.cells];
+        this.bans = new int[this.cells];
+        this.trail = new int[this.cells];
+    }
+
+    /* copies the whole state of another solver, used to hand a subtree of the search to another thread */
+    public SudokuSolver(SudokuSolver other)
+    {
+        this(other.geometry);
+        System.arraycopy(other.board, 0, this.board, 0, this.cells);
+        System.arraycopy(other.rowMasks, 0, this.rowMasks, 0, this.size);
+        System.arraycopy(other.columnMasks, 0, this.columnMasks, 0, this.size);
+        System.arraycopy(other.boxMasks, 0, this.boxMasks, 0, this.size);
+        System.arraycopy(other.trail, 0, this.trail, 0, other.trailSize);
+        System.arraycopy(other.candidateCounts, 0, this.candidateCounts, 0, this.cells);
+        System.arraycopy(other.bans, 0, this.bans, 0, this.cells);
+        this.loadedEmptyCount = other.loadedEmptyCount;
+        this.emptyCount = other.emptyCount;
+        this.trailSize = other.trailSize;
+        this.logicCount = other.logicCount;
+        this.guessCount = other.guessCount;
+    }
+
+    public GridGeometry Geometry()
+    {
+        return this.geometry;
+    }
+
+    /* the grid has to be of the solver's size */
+    @Override
+    public boolean Load(int[][] grid)
+    {
+        if (grid.length != this.size)
+            throw new IllegalArgumentException("a grid of " + grid.length + " rows given to a " + this.geometry + " solver");
+        Clear();
+        boolean legal = true;
+        for (int cell = 0; cell < this.cells; cell++)
+            legal &= LoadCell(cell, grid[this.rowOf[cell]][this.columnOf[cell]]);
+        LoadDone();
+        return legal;
+    }
+
+    /* same as above, from as many values as there are cells (0 for empty) in row-major order starting at offset */
+    public boolean Load(byte[] cells, int offset)
+    {
+        Clear();
+        boolean legal = true;
+        for (int cell = 0; cell < this.cells; cell++)
+            legal &= LoadCell(cell, cells[offset + cell]);
+        LoadDone();
+        return legal;
+    }
+
+    private void Clear()
+    {
+        Arrays.fill(this.rowMasks, 0);
+        Arrays.fill(this.columnMasks, 0);
+        Arrays.fill(this.boxMasks, 0);
+        Arrays.fill(this.bans, 0);
+        this.emptyCount = 0;
+        this.trailSize = 0;
+        this.logicCount = 0;
+        this.guessCount = 0;
+    }
+
+    private void LoadDone()
+    {
+        this.loadedEmptyCount = this.emptyCount;
+        for (int cell = 0; cell < this.cells; cell++)
+        {
+            if (this.board[cell] == 0)
+                this.candidateCounts[cell] = Integer.bitCount(Candidates(cell));
+        }
+    }
+
+    /* false if the value conflicts with one loaded before */
+    private boolean LoadCell(int cell, int value)
+    {
+        this.board[cell] = (byte) value;
+        if (value == 0)
+        {
+            this.emptyCount++;
+            return true;
+        }
+        int bit = 1 << (value - 1);
+        boolean legal = (Used(cell) & bit) == 0;
+        SetMasks(cell, bit);
+        return legal;
+    }
+
+    @Override
+    public int EmptyCount()
+    {
+        return this.loadedEmptyCount;
+    }
+
+    /* empty cells left right now */
+    public int RemainingCount()
+    {
+        return this.emptyCount;
+    }
+
+    /* the cell the search would fill next, the empty one with the fewest candidates (the first of those in row-major
+    *  order), -1 if there is none left
+    *  a linear scan over the counts kept up by Place and UndoTo, stopping at the first cell with one candidate or less,
+    *  buckets of cells per count would save the scan but move every peer between buckets on each placement and undo */
+    public int NextCell()
+    {
+        byte[] board = this.board;
+        int[] candidateCounts = this.candidateCounts;
+        int next = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int cell = 0; cell < board.length; cell++)
+        {
+            if (board[cell] == 0 && candidateCounts[cell] < fewest)
+            {
+                next = cell;
+                fewest = candidateCounts[cell];
+                if (fewest <= 1)  // cannot get any better
+                    break;
+            }
+        }
+        return next;
+    }
+
+    /* bit (value-1) is set for every value that can legally go into the cell */
+    public int Candidates(int cell)
+    {
+        return ~(Used(cell) | this.bans[cell]) & this.all;
+    }
+
+    /* keeps the value out of the empty cell until the next load, so the search only finds solutions that differ from
+    *  it there, call it right after loading */
+    public void Ban(int cell, int value)
+    {
+        this.bans[cell] |= 1 << (value - 1);
+        if (this.board[cell] == 0)
+            this.candidateCounts[cell] = Integer.bitCount(Candidates(cell));
+    }
+
+    /* fills the value into the cell for good and propagates it, false if that leads to a contradiction */
+    public boolean Assign(int cell, int value)
+    {
+        Place(cell, 1 << (value - 1), true);
+        return Propagate();
+    }
+
+    @Override
+    public int SolvedByLogic()
+    {
+        return this.logicCount;
+    }
+
+    @Override
+    public int SolvedBySearch()
+    {
+        return this.guessCount;
+    }
+
+    /* search nodes of the last call, every cell branched on (and every full board reached) */
+    public long Nodes()
+    {
+        return this.nodes;
+    }
+
+    /* guesses of the last call that were taken back, when counting that is all of them */
+    public long Backtracks()
+    {
+        return this.backtracks;
+    }
+
+    /* the most guesses on the board at once during the last call */
+    public int MaxDepth()
+    {
+        return this.maxDepth;
+    }
+
+    public long CandidatesTested()
+    {
+        return this.candidatesTested;
+    }
+
+    /* fields filled by propagation during the last call, including those taken back later */
+    public long Inferred()
+    {
+        return this.inferred;
+    }
+
+    @Override
+    public void CopyTo(int[][] grid)
+    {
+        for (int cell = 0; cell < this.cells; cell++)
+        {
+            grid[this.rowOf[cell]][this.columnOf[cell]] = this.board[cell];
+        }
+    }
+
+    /* writes the current board as one value per cell in row-major order starting at offset */
+    public void CopyTo(byte[] cells, int offset)
+    {
+        System.arraycopy(this.board, 0, cells, offset, this.cells);
+    }
+
+    @Override
+    public boolean Solve()
+    {
+        long start = StartCall();
+        int mark = this.trailSize;
+        boolean solved = Propagate() && SolveFrom();
+        if (!solved)
+            UndoTo(mark);
+        EndCall(SolverMetrics.Phase.SOLVE, start, solved ? 1 : 0);
+        return solved;
+    }
+
+    @Override
+    public long CountSolutions(long limit)
+    {
+        long start = StartCall();
+        this.count = 0;
+        this.limit = limit;
+        int mark = this.trailSize;
+        if (Propagate())
+            CountFrom();
+        UndoTo(mark);
+        EndCall(SolverMetrics.Phase.COUNT, start, this.count);
+        return this.count;
+    }
+
+    /* a random full grid, which is left on the board: the boxes on the diagonal share no unit, so they are filled
+    *  with random permutations, then the rest is searched trying the candidates in random order, without Propagate,
+    *  as the cell with the fewest candidates is nearly always a single here and a dead end shows right away
+    *  from 16x16 on an early bad choice can take ages to back out of, so a search placing more than FILL_BUDGET values
+    *  per cell starts over with other diagonal boxes */
+    public void FillRandom(SplittableRandom random)
+    {
+        long start = StartCall();
+        while (true)
+        {
+            this.fillBudget = (long) FILL_BUDGET * this.cells;
+            Clear();
+            Arrays.fill(this.board, (byte) 0);
+            this.emptyCount = this.cells;
+            for (int box = 0; box < this.size; box += this.geometry.boxSize + 1)
+            {
+                int[] cells = this.units[2 * this.size + box];
+                int remaining = this.all;
+                for (int k = 0; k < this.size; k++)
+                {
+                    int bit = RandomBit(remaining, random);
+                    remaining ^= bit;
+                    this.board[cells[k]] = (byte) (Integer.numberOfTrailingZeros(bit) + 1);
+                    SetMasks(cells[k], bit);
+                    this.emptyCount--;
+                }
+            }
+            LoadDone();
+            if (FillFrom(random))
+            {
+                EndCall(SolverMetrics.Phase.FILL, start, 1);
+                return;
+            }
+        }
+    }
+
+    private boolean FillFrom(SplittableRandom random)
+    {
+        Visit();
+        int cell = NextCell();
+        if (cell == -1)
+            return true;
+
+        int candidates = Candidates(cell);
+        while (candidates != 0 && this.fillBudget-- > 0)
+        {
+            int bit = RandomBit(candidates, random);
+            candidates ^= bit;
+            int mark = this.trailSize;
+            this.candidatesTested++;
+            Place(cell, bit, true);
+            if (FillFrom(random))
+                return true;
+            UndoTo(mark);
+            this.backtracks++;
+        }
+        return false;
+    }
+
+    /* one of the set bits, all equally likely */
+    private static int RandomBit(int bits, SplittableRandom random)
+    {
+        for (int skip = random.nextInt(Integer.bitCount(bits)); skip > 0; skip--)
+            bits &= bits - 1;
+        return bits & -bits;
+    }
+
+    /* same as above, the first capacity solutions are also written to solutions as one value per cell each, starting
+    *  at offset */
+    public long CountSolutions(long limit, byte[] solutions, int offset, int capacity)
+    {
+        this.solutionCells = solutions;
+        this.solutionCapacity = capacity;
+        this.solutionOffset = offset;
+        long count = CountSolutions(limit);
+        this.solutionCells = null;
+        return count;
+    }
+
+    @Override
+    public void CollectSolutions(List<int[][]> solutions)
+    {
+        this.solutions = solutions;
+        CountSolutions(Long.MAX_VALUE);
+        this.solutions = null;
+    }
+
+    private long StartCall()
+    {
+        this.nodes = 0;  this.backtracks = 0;  this.maxDepth = 0;  this.candidatesTested = 0;
+        this.inferred = 0;  this.propagations = 0;  this.contradictions = 0;
+        return System.nanoTime();
+    }
+
+    private void EndCall(SolverMetrics.Phase phase, long start, long solutions)
+    {
+        SolverMetrics.GLOBAL.RecordSearch(phase, System.nanoTime() - start, this.nodes, this.backtracks, this.maxDepth,
+                this.candidatesTested, this.inferred, this.propagations, this.contradictions, solutions);
+    }
+
+    /* a node of the search, its depth is the number of guesses on the board */
+    private void Visit()
+    {
+        this.nodes++;
+        if (this.guessCount > this.maxDepth)
+            this.maxDepth = this.guessCount;
+    }
+
+    private int Used(int cell)
+    {
+        return this.rowMasks[this.rowOf[cell]] | this.columnMasks[this.columnOf[cell]] | this.boxMasks[this.boxOf[cell]];
+    }
+
+    private void SetMasks(int cell, int bit)
+    {
+        this.rowMasks[this.rowOf[cell]] |= bit;
+        this.columnMasks[this.columnOf[cell]] |= bit;
+        this.boxMasks[this.boxOf[cell]] |= bit;
+    }
+
+    private void Place(int cell, int bit, boolean guess)
+    {
+        this.board[cell] = (byte) (Integer.numberOfTrailingZeros(bit) + 1);
+        // every empty peer that could still take the value loses it as a candidate
+        for (int peer : this.peers[cell])
+        {
+            if (this.board[peer] == 0 && (Candidates(peer) & bit) != 0)
+                this.candidateCounts[peer]--;
+        }
+        SetMasks(cell, bit);
+        this.emptyCount--;
+        this.trail[this.trailSize++] = guess ? cell | GUESS : cell;
+        if (guess)
+            this.guessCount++;
+        else
+            this.logicCount++;
+    }
+
+    /* takes back every cell filled after the trail had size mark */
+    private void UndoTo(int mark)
+    {
+        while (this.trailSize > mark)
+        {
+            int entry = this.trail[--this.trailSize];
+            int cell = entry & ~GUESS;
+            int bit = 1 << (this.board[cell] - 1);
+            this.board[cell] = 0;
+            this.rowMasks[this.rowOf[cell]] &= ~bit;
+            this.columnMasks[this.columnOf[cell]] &= ~bit;
+            this.boxMasks[this.boxOf[cell]] &= ~bit;
+            for (int peer : this.peers[cell])
+            {
+                if (this.board[peer] == 0 && (Candidates(peer) & bit) != 0)
+                    this.candidateCounts[peer]++;
+            }
+            this.candidateCounts[cell] = Integer.bitCount(Candidates(cell));
+            this.emptyCount++;
+            if ((entry & GUESS) != 0)
+                this.guessCount--;
+            else
+                this.logicCount--;
+        }
+    }
+
+    /* fills naked singles (cells with one candidate left) and hidden singles (values with one cell left in a row,
+    *  column or box) until there are none, false if some cell or value has no place left */
+    private boolean Propagate()
+    {
+        if (FillSingles())
+            return true;
+        this.contradictions++;
+        return false;
+    }
+
+    private boolean FillSingles()
+    {
+        boolean changed = true;
+        while (changed)
+        {
+            this.propagations++;
+            changed = false;
+            byte[] board = this.board;
+            int[] candidateCounts = this.candidateCounts;
+            for (int cell = 0; cell < board.length; cell++)
+            {
+                if (board[cell] != 0)
+                    continue;
+                if (candidateCounts[cell] == 0)
+                    return false;
+                if (candidateCounts[cell] == 1)
+                {
+                    Place(cell, Candidates(cell), false);
+                    this.inferred++;
+                    changed = true;
+                }
+            }
+            for (int[] unit : this.units)
+            {
+                int once = 0, more = 0, placed = 0;
+                for (int cell : unit)
+                {
+                    if (this.board[cell] != 0)
+                    {
+                        placed |= 1 << (this.board[cell] - 1);
+                        continue;
+                    }
+                    int candidates = Candidates(cell);
+                    more |= once & candidates;
+                    once |= candidates;
+                }
+                if ((once | placed) != this.all)  // some value cannot go anywhere in this unit
+                    return false;
+                int hidden = once & ~more & ~placed;
+                while (hidden != 0)
+                {
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    // an earlier hidden single of this unit may have taken the cell, look again
+                    int target = -1;
+                    for (int cell : unit)
+                    {
+                        if (this.board[cell] == 0 && (Candidates(cell) & bit) != 0)
+                        {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target == -1)
+                        return false;
+                    Place(target, bit, false);
+                    this.inferred++;
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    /* every node branches on the cell with the fewest candidates, which keeps the tree narrow */
+    private boolean SolveFrom()
+    {
+        Visit();
+        int cell = NextCell();
+        if (cell == -1)  // every cell is filled
+            return true;
+
+        int candidates = Candidates(cell);
+        while (candidates != 0)
+        {
+            int bit = candidates & -candidates;  // lowest candidate first, same order as 1 to size
+            candidates ^= bit;
+            int mark = this.trailSize;
+            this.candidatesTested++;
+            Place(cell, bit, true);
+            if (Propagate() && SolveFrom())
+                return true;
+            UndoTo(mark);
+            this.backtracks++;
+        }
+        return false;
+    }
+
+    /* returns true once the limit is reached, so the whole search stops */
+    private boolean CountFrom()
+    {
+        Visit();
+        int cell = NextCell();
+        if (cell == -1)
+        {
+            this.count++;
+            if (this.solutions != null)
+            {
+                int[][] solution = new int[this.size][this.size];
+                CopyTo(solution);
+                this.solutions.add(solution);
+            }
+            if (this.solutionCells != null && this.count <= this.solutionCapacity)
+                CopyTo(this.solutionCells, this.solutionOffset + (int) (this.count - 1) * this.cells);
+            return this.count >= this.limit;
+        }
+
+        int candidates = Candidates(cell);
+        while (candidates != 0)
+        {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+            int mark = this.trailSize;
+            this.candidatesTested++;
+            Place(cell, bit, true);
+            boolean stop = Propagate() && CountFrom();
+            UndoTo(mark);
+            this.backtracks++;
+            if (stop)
+                return true;
+        }
+        return false;
+    }
+}
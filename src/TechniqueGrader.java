@@ -0,0 +1,380 @@
+/* grades a puzzle by the hardest technique a human needs to solve it, a rank function far cheaper than counting the
+*  solutions as it never guesses: it fills and eliminates candidates with the easiest technique that still makes
+*  progress, and stops once the grid is solved, contradicts itself, or none of the techniques gets any further
+*  the rank is the level of the hardest technique (1 for hidden singles to 7 for stuck, i.e. needs guessing) plus the
+*  given fields / 82 like SudokuGrid.GetRank, so the bands are [1, 2) for hidden singles only, [2, 3) for naked
+*  singles and so on, it says nothing about how many solutions there are
+*  holds no state, so one grader can be shared by any number of threads */
+class TechniqueGrader implements RankFunction
+{
+    enum Technique
+    {
+        HIDDEN_SINGLE,      // the only place left for a value in a row, column or box
+        NAKED_SINGLE,       // the only value left for a field
+        LOCKED_CANDIDATES,  // a value of a box confined to one line, or of a line to one box (pointing, claiming)
+        NAKED_PAIR,         // two fields of a unit with the same two values left, nothing else there takes them
+        HIDDEN_PAIR,        // two values of a unit left in the same two fields only, those take nothing else
+        X_WING,             // a value left in the same two columns of two rows (or the other way round)
+        STUCK               // none of the above gets any further
+    }
+
+    @Override
+    public double Rank(SudokuGrid sudokuGrid)
+    {
+        Technique hardest = Grade(sudokuGrid.originalGrid);
+        if (hardest == null)
+            return Double.MAX_VALUE;  // worst rank
+        return hardest.ordinal() + 1 + (81 - sudokuGrid.initialCanFillFields.Size()) / 82d;
+    }
+
+    /* the hardest technique the grid needs, null if it contradicts itself, only 9x9 grids */
+    public static Technique Grade(int[][] grid)
+    {
+        if (grid.length != 9)
+            throw new IllegalArgumentException("TechniqueGrader only handles 9x9 grids");
+        return new Grading(grid).Run();
+    }
+
+    /* the state of one grading, candidates as bitmasks like SudokuSolver */
+    private static class Grading
+    {
+        private final int[] values = new int[81];
+        private final int[] candidates = new int[81];
+        private int emptyCount = 81;
+        private boolean broken;
+
+        Grading(int[][] grid)
+        {
+            java.util.Arrays.fill(this.candidates, SudokuSolver.ALL);
+            for (int cell = 0; cell < 81; cell++)
+            {
+                int value = grid[cell / 9][cell % 9];
+                if (value == 0)
+                    continue;
+                if ((this.candidates[cell] & (1 << (value - 1))) == 0)  // a peer has it already
+                    this.broken = true;
+                Place(cell, value);
+            }
+        }
+
+        Technique Run()
+        {
+            Technique hardest = Technique.HIDDEN_SINGLE;
+            while (!this.broken && this.emptyCount > 0)
+            {
+                Technique used;
+                if (HiddenSingles())
+                    used = Technique.HIDDEN_SINGLE;
+                else if (NakedSingles())
+                    used = Technique.NAKED_SINGLE;
+                else if (LockedCandidates())
+                    used = Technique.LOCKED_CANDIDATES;
+                else if (NakedPairs())
+                    used = Technique.NAKED_PAIR;
+                else if (HiddenPairs())
+                    used = Technique.HIDDEN_PAIR;
+                else if (XWings())
+                    used = Technique.X_WING;
+                else
+                    return this.broken ? null : Technique.STUCK;
+                if (used.compareTo(hardest) > 0)
+                    hardest = used;
+            }
+            return this.broken ? null : hardest;
+        }
+
+        private void Place(int cell, int value)
+        {
+            int bit = 1 << (value - 1);
+            this.values[cell] = value;
+            this.candidates[cell] = 0;
+            this.emptyCount--;
+            for (int peer : SudokuSolver.PEERS[cell])
+            {
+                if (this.values[peer] == 0)
+                {
+                    this.candidates[peer] &= ~bit;
+                    if (this.candidates[peer] == 0)
+                        this.broken = true;
+                }
+            }
+        }
+
+        /* removes the values from the cell, true if it had any of them */
+        private boolean Eliminate(int cell, int bits)
+        {
+            if (this.values[cell] != 0 || (this.candidates[cell] & bits) == 0)
+                return false;
+            this.candidates[cell] &= ~bits;
+            if (this.candidates[cell] == 0)
+                this.broken = true;
+            return true;
+        }
+
+        /* bit k is set if the k-th field of the unit can still take the value */
+        private int Positions(int[] unit, int bit)
+        {
+            int positions = 0;
+            for (int k = 0; k < 9; k++)
+            {
+                if ((this.candidates[unit[k]] & bit) != 0)
+                    positions |= 1 << k;
+            }
+            return positions;
+        }
+
+        private int Placed(int[] unit)
+        {
+            int placed = 0;
+            for (int cell : unit)
+            {
+                if (this.values[cell] != 0)
+                    placed |= 1 << (this.values[cell] - 1);
+            }
+            return placed;
+        }
+
+        private boolean HiddenSingles()
+        {
+            boolean progress = false;
+            for (int[] unit : SudokuSolver.UNITS)
+            {
+                int placed = Placed(unit);
+                for (int value = 1; value <= 9 && !this.broken; value++)
+                {
+                    int bit = 1 << (value - 1);
+                    if ((placed & bit) != 0)
+                        continue;
+                    int positions = Positions(unit, bit);
+                    if (positions == 0)
+                        this.broken = true;  // the value cannot go anywhere in this unit
+                    else if ((positions & (positions - 1)) == 0)
+                    {
+                        Place(unit[Integer.numberOfTrailingZeros(positions)], value);
+                        placed |= bit;
+                        progress = true;
+                    }
+                }
+            }
+            return progress;
+        }
+
+        private boolean NakedSingles()
+        {
+            boolean progress = false;
+            for (int cell = 0; cell < 81 && !this.broken; cell++)
+            {
+                int candidates = this.candidates[cell];
+                if (this.values[cell] == 0 && Integer.bitCount(candidates) == 1)
+                {
+                    Place(cell, Integer.numberOfTrailingZeros(candidates) + 1);
+                    progress = true;
+                }
+            }
+            return progress;
+        }
+
+        /* pointing: a value of a box only left in one row or column of it is not in the rest of that line,
+        *  claiming: a value of a row or column only left in one box is not in the rest of that box */
+        private boolean LockedCandidates()
+        {
+            boolean progress = false;
+            for (int box = 0; box < 9; box++)
+            {
+                int[] unit = SudokuSolver.UNITS[18 + box];
+                for (int bit = 1; bit <= SudokuSolver.ALL; bit <<= 1)
+                {
+                    int positions = Positions(unit, bit);
+                    if (positions == 0)
+                        continue;
+                    int row = SameRow(unit, positions), column = SameColumn(unit, positions);
+                    if (row != -1)
+                        progress |= EliminateOutside(SudokuSolver.UNITS[row], box, bit);
+                    if (column != -1)
+                        progress |= EliminateOutside(SudokuSolver.UNITS[9 + column], box, bit);
+                }
+            }
+            for (int line = 0; line < 18; line++)
+            {
+                int[] unit = SudokuSolver.UNITS[line];
+                for (int bit = 1; bit <= SudokuSolver.ALL; bit <<= 1)
+                {
+                    int positions = Positions(unit, bit);
+                    if (positions == 0)
+                        continue;
+                    int box = SameBox(unit, positions);
+                    if (box == -1)
+                        continue;
+                    for (int cell : SudokuSolver.UNITS[18 + box])
+                    {
+                        if (!Contains(unit, cell))
+                            progress |= Eliminate(cell, bit);
+                    }
+                }
+            }
+            return progress;
+        }
+
+        /* removes the value from the fields of the line outside the box */
+        private boolean EliminateOutside(int[] line, int box, int bit)
+        {
+            boolean progress = false;
+            for (int cell : line)
+            {
+                if (SudokuSolver.BOX_OF[cell] != box)
+                    progress |= Eliminate(cell, bit);
+            }
+            return progress;
+        }
+
+        private static int SameRow(int[] unit, int positions)
+        {
+            int row = -1;
+            for (int k = 0; k < 9; k++)
+            {
+                if ((positions & (1 << k)) == 0)
+                    continue;
+                if (row != -1 && SudokuSolver.ROW_OF[unit[k]] != row)
+                    return -1;
+                row = SudokuSolver.ROW_OF[unit[k]];
+            }
+            return row;
+        }
+
+        private static int SameColumn(int[] unit, int positions)
+        {
+            int column = -1;
+            for (int k = 0; k < 9; k++)
+            {
+                if ((positions & (1 << k)) == 0)
+                    continue;
+                if (column != -1 && SudokuSolver.COLUMN_OF[unit[k]] != column)
+                    return -1;
+                column = SudokuSolver.COLUMN_OF[unit[k]];
+            }
+            return column;
+        }
+
+        private static int SameBox(int[] unit, int positions)
+        {
+            int box = -1;
+            for (int k = 0; k < 9; k++)
+            {
+                if ((positions & (1 << k)) == 0)
+                    continue;
+                if (box != -1 && SudokuSolver.BOX_OF[unit[k]] != box)
+                    return -1;
+                box = SudokuSolver.BOX_OF[unit[k]];
+            }
+            return box;
+        }
+
+        private static boolean Contains(int[] unit, int cell)
+        {
+            for (int other : unit)
+            {
+                if (other == cell)
+                    return true;
+            }
+            return false;
+        }
+
+        private boolean NakedPairs()
+        {
+            boolean progress = false;
+            for (int[] unit : SudokuSolver.UNITS)
+            {
+                for (int i = 0; i < 9; i++)
+                {
+                    int pair = this.candidates[unit[i]];
+                    if (this.values[unit[i]] != 0 || Integer.bitCount(pair) != 2)
+                        continue;
+                    for (int j = i + 1; j < 9; j++)
+                    {
+                        if (this.values[unit[j]] != 0 || this.candidates[unit[j]] != pair)
+                            continue;
+                        for (int k = 0; k < 9; k++)
+                        {
+                            if (k != i && k != j)
+                                progress |= Eliminate(unit[k], pair);
+                        }
+                    }
+                }
+            }
+            return progress;
+        }
+
+        private boolean HiddenPairs()
+        {
+            boolean progress = false;
+            int[] positions = new int[9];
+            for (int[] unit : SudokuSolver.UNITS)
+            {
+                for (int value = 0; value < 9; value++)
+                    positions[value] = Positions(unit, 1 << value);
+                for (int first = 0; first < 9; first++)
+                {
+                    if (Integer.bitCount(positions[first]) != 2)
+                        continue;
+                    for (int second = first + 1; second < 9; second++)
+                    {
+                        if (positions[second] != positions[first])
+                            continue;
+                        int keep = (1 << first) | (1 << second);
+                        for (int k = 0; k < 9; k++)
+                        {
+                            if ((positions[first] & (1 << k)) != 0)
+                                progress |= Eliminate(unit[k], SudokuSolver.ALL & ~keep);
+                        }
+                    }
+                }
+            }
+            return progress;
+        }
+
+        /* a value left in the same two columns of two rows cannot be anywhere else in those columns, and the same with
+        *  rows and columns swapped */
+        private boolean XWings()
+        {
+            boolean progress = false;
+            for (int bit = 1; bit <= SudokuSolver.ALL; bit <<= 1)
+            {
+                progress |= XWing(bit, 0, 9);
+                progress |= XWing(bit, 9, 0);
+            }
+            return progress;
+        }
+
+        /* lines are the units from base, crossing ones from crossBase */
+        private boolean XWing(int bit, int base, int crossBase)
+        {
+            boolean progress = false;
+            int[] positions = new int[9];
+            for (int line = 0; line < 9; line++)
+                positions[line] = Positions(SudokuSolver.UNITS[base + line], bit);
+            for (int first = 0; first < 9; first++)
+            {
+                if (Integer.bitCount(positions[first]) != 2)
+                    continue;
+                for (int second = first + 1; second < 9; second++)
+                {
+                    if (positions[second] != positions[first])
+                        continue;
+                    // the k-th field of a line lies on the k-th crossing line
+                    for (int k = 0; k < 9; k++)
+                    {
+                        if ((positions[first] & (1 << k)) == 0)
+                            continue;
+                        int[] cross = SudokuSolver.UNITS[crossBase + k];
+                        for (int line = 0; line < 9; line++)
+                        {
+                            if (line != first && line != second)
+                                progress |= Eliminate(cross[line], bit);
+                        }
+                    }
+                }
+            }
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/* GridValidator's check of every unit over a batch of grids, written with the incubating Vector API, so that a field
+*  of as many grids as the CPU's widest int vector holds is checked by one instruction, whatever the JIT makes of the
+*  plain loops
+*  only used (and so only loaded) when the JVM runs with --add-modules jdk.incubator.vector, see GridValidator */
+final class VectorGridValidator
+{
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorGridValidator()
+    {
+    }
+
+    /* bits[cell][lane] as in GridValidator, every lane that breaks a rule in some unit gets a bit set in broken,
+    *  missing is the mask of all values if the grids have to be full, 0 if not */
+    static void CheckUnits(int[][] bits, int[][] units, int lanes, int missing, int[] broken)
+    {
+        int vectorLanes = SPECIES.loopBound(lanes);
+        for (int[] unit : units)
+        {
+            int lane = 0;
+            for (; lane < vectorLanes; lane += SPECIES.length())
+            {
+                IntVector seen = IntVector.zero(SPECIES);
+                IntVector twice = IntVector.zero(SPECIES);
+                for (int cell : unit)
+                {
+                    IntVector column = IntVector.fromArray(SPECIES, bits[cell], lane);
+                    twice = twice.or(seen.and(column));
+                    seen = seen.or(column);
+                }
+                // a full unit has seen every value, (seen & missing) ^ missing is 0 then and always is if not full
+                IntVector.fromArray(SPECIES, broken, lane).or(twice).or(seen.and(missing).lanewise(VectorOperators.XOR, missing))
+                        .intoArray(broken, lane);
+            }
+            // the lanes left over, fewer than a vector holds
+            for (; lane < lanes; lane++)
+            {
+                int seen = 0, twice = 0;
+                for (int cell : unit)
+                {
+                    int bit = bits[cell][lane];
+                    twice |= seen & bit;
+                    seen |= bit;
+                }
+                broken[lane] |= twice | ((seen & missing) ^ missing);
+            }
+        }
+    }
+}
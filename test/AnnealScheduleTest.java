@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class AnnealScheduleTest
+{
+    @Test
+    void AdaptiveStopsReheatingAfterMaxReheats()
+    {
+        AnnealSchedule schedule = AnnealSchedule.Adaptive(1, 0.001, 0.5, 0.5, 2, 3);
+        assertTrue(schedule.Next(0.01, 0.5, 2, 2) > 0.01);
+        assertEquals(0.01 * 0.5, schedule.Next(0.01, 0.5, 2, 3), 1e-12);
+        assertEquals(0.01 * 0.5, schedule.Next(0.01, 0.5, 4, 3), 1e-12);
+    }
+
+    /* a rank that never gets better keeps the run stalled for good, with no stall or evaluation limit only running
+    *  out of reheats ends it */
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void StalledAdaptiveRunEnds()
+    {
+        SudokuGenerator generator = new SudokuGenerator(1);
+        generator.rankFunction = sudokuGrid -> 50;
+        generator.annealSchedule = AnnealSchedule.Adaptive(1, 0.001, 0.5, 0.5, 1).WithSweep(10, 10);
+        int[] reheats = {0};
+        double[] last = {Double.MAX_VALUE};
+        generator.annealListener = new AnnealListener()
+        {
+            @Override
+            public void Step(long step, double temperature, int cell, int value, boolean added, double rank, double cost, boolean accepted) {}
+
+            @Override
+            public void Sweep(double temperature, double rank)
+            {
+                if (temperature > last[0])
+                    reheats[0]++;
+                last[0] = temperature;
+            }
+        };
+        assertNotNull(generator.Anneal(1, 2));
+        assertEquals(10, reheats[0]);
+    }
+}
@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class GridValidatorTest
+{
+    // not a multiple of any vector length, so the leftover lanes are checked too
+    private static final int GRIDS = 301;
+    // of broken grids, see Break
+    private static final int KINDS = 5;
+
+    @Test
+    void VectorApiIsThere()
+    {
+        assertTrue(GridValidator.VECTOR_API, "the tests run with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void VectorAndScalarAgreeOnStandardGrids()
+    {
+        CheckBothPaths(GridGeometry.STANDARD);
+    }
+
+    @Test
+    void VectorAndScalarAgreeOnLargeGrids()
+    {
+        CheckBothPaths(GridGeometry.Of(4));
+    }
+
+    /* full grids, most of them broken in some way, checked by both paths, full and not, against IsValid and against
+    *  what the way it was broken makes of it */
+    private static void CheckBothPaths(GridGeometry geometry)
+    {
+        int cells = geometry.cells;
+        byte[] batch = new byte[GRIDS * cells];
+        SudokuGenerator generator = new SudokuGenerator(geometry, 1);
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < GRIDS; i++)
+        {
+            int[][] grid = generator.RandomFullGrid();
+            for (int cell = 0; cell < cells; cell++)
+                batch[i * cells + cell] = (byte) grid[geometry.rowOf[cell]][geometry.columnOf[cell]];
+            Break(batch, i * cells, geometry, i % KINDS, random);
+        }
+
+        GridValidator vector = new GridValidator(geometry, true);
+        GridValidator scalar = new GridValidator(geometry, false);
+        for (boolean full : new boolean[]{true, false})
+        {
+            boolean[] expected = new boolean[GRIDS];
+            for (int i = 0; i < GRIDS; i++)
+                expected[i] = GridValidator.IsValid(geometry, batch, i * cells, full);
+            boolean[] byVector = new boolean[GRIDS];
+            boolean[] byScalar = new boolean[GRIDS];
+            vector.Validate(batch, 0, GRIDS, full, byVector);
+            scalar.Validate(batch, 0, GRIDS, full, byScalar);
+            assertArrayEquals(expected, byScalar);
+            assertArrayEquals(expected, byVector);
+            for (int i = 0; i < GRIDS; i++)
+                assertEquals(i % KINDS == 0 || (!full && i % KINDS == 1), byVector[i], "grid " + i + " full " + full);
+        }
+    }
+
+    /* kind 0 leaves the grid as it is, 1 empties a field, 2 copies a field into its row neighbour, 3 puts in a value
+    *  above size, 4 a negative one */
+    private static void Break(byte[] batch, int offset, GridGeometry geometry, int kind, SplittableRandom random)
+    {
+        int cell = random.nextInt(geometry.cells);
+        int size = geometry.size;
+        switch (kind)
+        {
+            case 1:
+                batch[offset + cell] = 0;
+                break;
+            case 2:
+                int neighbour = geometry.rowOf[cell] * size + (geometry.columnOf[cell] + 1) % size;
+                batch[offset + neighbour] = batch[offset + cell];
+                break;
+            case 3:
+                batch[offset + cell] = (byte) (size + 1);
+                break;
+            case 4:
+                batch[offset + cell] = -1;
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PackedPuzzleFormatTest
+{
+    @TempDir
+    Path directory;
+
+    /* the file holds the puzzle, whatever solving did to the working grid */
+    @Test
+    void RoundTripOfSolvedGridKeepsThePuzzle() throws IOException
+    {
+        SudokuGrid sudokuGrid = new SudokuGrid();
+        int[][] puzzle = sudokuGrid.CopyGrid(sudokuGrid.originalGrid);
+        assertTrue(sudokuGrid.Solve());
+        Path path = this.directory.resolve("puzzles.sdkp");
+        try (PackedPuzzleFormat.Writer writer = new PackedPuzzleFormat.Writer(path))
+        {
+            writer.Write(sudokuGrid);
+            writer.Write(sudokuGrid.grid);
+        }
+        try (InputStream in = Files.newInputStream(path); PackedPuzzleFormat.Reader reader = new PackedPuzzleFormat.Reader(in))
+        {
+            assertEquals(2, reader.Count());
+            assertArrayEquals(puzzle, reader.Next().originalGrid);
+            assertArrayEquals(sudokuGrid.grid, reader.Next().originalGrid);
+            assertNull(reader.Next());
+        }
+    }
+
+    @Test
+    void ValuesAboveNineAreRejected()
+    {
+        int[][] grid = new int[9][9];
+        grid[4][4] = 9;
+        byte[] record = new byte[PackedPuzzleFormat.MAX_RECORD];
+        int length = PackedPuzzleFormat.Encode(grid, record, 0);
+        record[length - 1] |= 0x0F;  // the only value, nibble 15 is 16
+        assertThrows(IOException.class, () -> PackedPuzzleFormat.Decode(record, 0, new int[9][9]));
+    }
+
+    @Test
+    void OtherSizesAreRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> PackedPuzzleFormat.Encode(new int[16][16], new byte[PackedPuzzleFormat.MAX_RECORD], 0));
+    }
+}
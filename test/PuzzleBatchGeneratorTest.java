@@ -0,0 +1,41 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class PuzzleBatchGeneratorTest
+{
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void BatchesEndWithTheirPuzzles()
+    {
+        try (PuzzleBatchGenerator generator = new PuzzleBatchGenerator(2, 4))
+        {
+            PuzzleBatchGenerator.Batch batch = generator.Submit(6, 1, 1.5, 5000, GenerationStrategy.DIG_HOLES);
+            assertEquals(6, batch.Stream().count() + batch.Failed());
+            assertFalse(generator.Submit(0, 1, 1.5, 5000, GenerationStrategy.DIG_HOLES).hasNext());
+        }
+    }
+
+    /* the only worker thread is busy with the first batch, so the workers of the second one are still waiting in the
+    *  pool when it is closed and never run */
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void CloseStopsConsumersOfWorkersThatNeverRan() throws Exception
+    {
+        PuzzleBatchGenerator generator = new PuzzleBatchGenerator(1, 4);
+        PuzzleBatchGenerator.Batch busy = generator.Submit(1000, 70, 80, 60_000);
+        PuzzleBatchGenerator.Batch waiting = generator.Submit(3, 1, 1.5, 5000, GenerationStrategy.DIG_HOLES);
+        CompletableFuture<Boolean> hasNext = CompletableFuture.supplyAsync(waiting::hasNext);
+        Thread.sleep(200);  // the consumer blocks in hasNext
+        generator.close();
+        assertFalse(hasNext.get(30, TimeUnit.SECONDS));
+        assertFalse(busy.hasNext());
+        assertThrows(RejectedExecutionException.class, () -> generator.Submit(1, 1, 1.5, 5000, GenerationStrategy.DIG_HOLES));
+    }
+}
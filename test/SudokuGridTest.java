@@ -0,0 +1,19 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SudokuGridTest
+{
+    @Test
+    void SolveLeavesNoFieldToFill()
+    {
+        SudokuGrid sudokuGrid = new SudokuGrid();
+        assertTrue(sudokuGrid.canFillFields.Size() > 0);
+        assertTrue(sudokuGrid.Solve());
+        assertEquals(0, sudokuGrid.canFillFields.Size());
+        // a filled field is no longer a candidate for anything else
+        assertFalse(sudokuGrid.ValidateField(new GridPosition(1, 1), sudokuGrid.grid[0][0] % 9 + 1));
+    }
+}